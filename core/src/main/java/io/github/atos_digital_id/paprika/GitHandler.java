@@ -12,6 +12,7 @@ import java.time.ZonedDateTime;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 
 import org.apache.maven.AbstractMavenLifecycleParticipant;
@@ -24,8 +25,12 @@ import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.RepositoryBuilder;
 
 import io.github.atos_digital_id.paprika.config.Config;
+import io.github.atos_digital_id.paprika.config.ConfigHandler;
+import io.github.atos_digital_id.paprika.project.ParsedModelCache;
 import io.github.atos_digital_id.paprika.utils.Pretty;
 import io.github.atos_digital_id.paprika.utils.log.PaprikaLogger;
+import io.github.atos_digital_id.paprika.utils.templating.engine.TemplateCache;
+import io.github.atos_digital_id.paprika.utils.templating.value.CommitMessageCache;
 import lombok.NonNull;
 
 /**
@@ -38,6 +43,18 @@ public class GitHandler extends AbstractMavenLifecycleParticipant {
   @Inject
   private PaprikaLogger logger;
 
+  @Inject
+  private Provider<PaprikaPrecomputer> precomputer;
+
+  @Inject
+  private Provider<ParsedModelCache> parsedModelCache;
+
+  @Inject
+  private Provider<CommitMessageCache> commitMessageCache;
+
+  @Inject
+  private Provider<ConfigHandler> configHandler;
+
   private Repository repository;
 
   private ZonedDateTime startTime;
@@ -89,6 +106,9 @@ public class GitHandler extends AbstractMavenLifecycleParticipant {
     branch = currentBranch();
     logger.log( "Current branches: {}", branch );
 
+    // Precomputation
+    precomputer.get().start( session );
+
   }
 
   private String currentBranch() throws MavenExecutionException {
@@ -136,6 +156,12 @@ public class GitHandler extends AbstractMavenLifecycleParticipant {
   @Override
   public void afterSessionEnd( MavenSession session ) throws MavenExecutionException {
 
+    precomputer.get().stop();
+    parsedModelCache.get().clear();
+    commitMessageCache.get().clear();
+    configHandler.get().clear();
+    TemplateCache.clear();
+
     if( repository != null )
       repository.close();
 
@@ -144,6 +170,15 @@ public class GitHandler extends AbstractMavenLifecycleParticipant {
 
   }
 
+  /**
+   * Test if the Git repository is loaded, i.e. if a session is running.
+   *
+   * @return true if the Git repository is loaded.
+   **/
+  public boolean isLoaded() {
+    return repository != null;
+  }
+
   private <T> T checkinit( T obj ) {
     if( repository == null )
       throw new IllegalStateException( "Git repository not loaded yet." );
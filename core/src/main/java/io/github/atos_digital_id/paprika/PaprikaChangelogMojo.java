@@ -13,8 +13,6 @@ import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.function.Predicate;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.inject.Inject;
 
@@ -36,10 +34,12 @@ import org.eclipse.jgit.revwalk.RevWalk;
 import io.github.atos_digital_id.paprika.config.Config;
 import io.github.atos_digital_id.paprika.config.ConfigHandler;
 import io.github.atos_digital_id.paprika.history.ArtifactCheckers;
+import io.github.atos_digital_id.paprika.history.PathOwnership;
 import io.github.atos_digital_id.paprika.project.ArtifactDef;
 import io.github.atos_digital_id.paprika.project.ArtifactDefProvider;
 import io.github.atos_digital_id.paprika.project.ArtifactTags;
 import io.github.atos_digital_id.paprika.utils.templating.engine.TemplateEngine;
+import io.github.atos_digital_id.paprika.utils.templating.value.CommitMessageCache;
 import io.github.atos_digital_id.paprika.utils.templating.value.ReleaseValue;
 import io.github.atos_digital_id.paprika.version.Version;
 import lombok.Data;
@@ -76,6 +76,9 @@ public class PaprikaChangelogMojo extends AbstractMojo {
   @Inject
   private ArtifactTags artifactTags;
 
+  @Inject
+  private CommitMessageCache commitMessageCache;
+
   @Parameter( defaultValue = "${session}", readonly = true, required = true )
   private MavenSession session;
 
@@ -94,9 +97,7 @@ public class PaprikaChangelogMojo extends AbstractMojo {
       scope.add( def );
       scope.addAll( def.getAllDependencies() );
 
-      List<ArtifactCheckers.Checker> checkers = new ArrayList<>();
-      for( ArtifactDef d : scope )
-        checkers.add( artifactCheckers.create( d ) );
+      PathOwnership<ArtifactDef> ownership = artifactCheckers.ownership( scope );
       Repository repository = gitHandler.repository();
 
       Config config = configHandler.get();
@@ -157,8 +158,19 @@ public class PaprikaChangelogMojo extends AbstractMojo {
         revWalk.setFirstParent( true );
         revWalk.markStart( getHistoryTo( def, revWalk ) );
 
-        RevCommit current = revWalk.next();
-        while( current != null && !stopHistory.test( current ) ) {
+        List<RevCommit> history = new ArrayList<>();
+        RevCommit next = revWalk.next();
+        while( next != null && !stopHistory.test( next ) ) {
+          history.add( next );
+          next = revWalk.next();
+        }
+
+        List<SortedSet<ArtifactDef>> modified =
+            artifactCheckers.modifiedAt( revWalk, history, ownership );
+
+        for( int i = 0; i < history.size(); i++ ) {
+
+          RevCommit current = history.get( i );
 
           if( tagsMap.containsKey( current ) ) {
             for( Ref ref : tagsMap.get( current ) ) {
@@ -169,13 +181,8 @@ public class PaprikaChangelogMojo extends AbstractMojo {
             }
           }
 
-          for( ArtifactCheckers.Checker checker : checkers )
-            if( checker.isModifiedAt( revWalk, current ) ) {
-              currentRelease.add( current );
-              break;
-            }
-
-          current = revWalk.next();
+          if( !modified.get( i ).isEmpty() )
+            currentRelease.add( current );
 
         }
 
@@ -185,7 +192,7 @@ public class PaprikaChangelogMojo extends AbstractMojo {
         context.put( "releases", releases );
 
         try( Writer writer = getOutputWriter( config ) ) {
-          writer.append( TemplateEngine.execute( config, config.getChangelogTemplate(), context ) );
+          TemplateEngine.execute( config, config.getChangelogTemplate(), context, writer );
         }
 
       }
@@ -267,7 +274,13 @@ public class PaprikaChangelogMojo extends AbstractMojo {
 
     public ReleaseValue create() {
       Collections.reverse( commits );
-      return ReleaseValue.wrap( gitHandler, tagName, version, taggedObj, commits );
+      return ReleaseValue.wrap(
+          gitHandler,
+          commitMessageCache,
+          tagName,
+          version,
+          taggedObj,
+          commits );
     }
 
     public void startNew( RevWalk revWalk, Ref ref ) throws IOException {
@@ -290,34 +303,51 @@ public class PaprikaChangelogMojo extends AbstractMojo {
     Log log = getLog();
     return new Writer() {
 
-      private Pattern NL = Pattern.compile( "\\R" );
+      private final StringBuilder line = new StringBuilder();
 
-      private String remaining = "";
+      // a \r was the last char, and a following \n must be skipped
+      private boolean afterCarriageReturn = false;
 
       @Override
       public void write( char[] cbuf, int off, int len ) {
 
-        String w = remaining + new String( cbuf, off, len );
+        for( int i = off; i < off + len; i++ ) {
+
+          char c = cbuf[i];
+
+          if( afterCarriageReturn ) {
+            afterCarriageReturn = false;
+            if( c == '\n' )
+              continue;
+          }
+
+          if( isLineTerminator( c ) ) {
+            log.info( line.toString() );
+            line.setLength( 0 );
+            afterCarriageReturn = c == '\r';
+          } else {
+            line.append( c );
+          }
 
-        int s = 0;
-        Matcher matcher = NL.matcher( w );
-        while( matcher.find() ) {
-          log.info( w.substring( s, matcher.start() ) );
-          s = matcher.end();
         }
 
-        remaining = w.substring( s );
+      }
 
+      // same chars as the \R regex
+      private boolean isLineTerminator( char c ) {
+        return c == '\n' || c == '\r' || c == '\u000B' || c == '\u000C'
+            || c == '\u0085' || c == '\u2028' || c == '\u2029';
       }
 
       @Override
       public void flush() {
-        log.info( remaining );
+        // the lines are logged as soon as completed
       }
 
       @Override
       public void close() {
-        flush();
+        log.info( line.toString() );
+        line.setLength( 0 );
       }
 
     };
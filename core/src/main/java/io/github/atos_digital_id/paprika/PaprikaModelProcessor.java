@@ -9,10 +9,17 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.SortedSet;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -24,17 +31,21 @@ import org.apache.maven.model.Model;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.model.building.DefaultModelProcessor;
 import org.apache.maven.model.building.ModelProcessor;
-import org.eclipse.jgit.revwalk.RevCommit;
 
 import io.github.atos_digital_id.paprika.config.Config;
 import io.github.atos_digital_id.paprika.config.ConfigHandler;
 import io.github.atos_digital_id.paprika.history.ArtifactStatus;
 import io.github.atos_digital_id.paprika.history.ArtifactStatusExaminer;
+import io.github.atos_digital_id.paprika.history.CommitInfo;
 import io.github.atos_digital_id.paprika.project.ArtifactDef;
 import io.github.atos_digital_id.paprika.project.ArtifactDefProvider;
 import io.github.atos_digital_id.paprika.project.ArtifactId;
+import io.github.atos_digital_id.paprika.project.ParsedModelCache;
+import io.github.atos_digital_id.paprika.project.PropertiesScope;
 import io.github.atos_digital_id.paprika.utils.ModelWalker;
 import io.github.atos_digital_id.paprika.utils.ModelWalker.GAV;
+import io.github.atos_digital_id.paprika.utils.cache.ArtifactIdCache;
+import io.github.atos_digital_id.paprika.utils.cache.HashMapArtifactIdCache;
 import io.github.atos_digital_id.paprika.utils.log.PaprikaLogger;
 import io.github.atos_digital_id.paprika.version.Version;
 
@@ -62,9 +73,15 @@ public class PaprikaModelProcessor extends DefaultModelProcessor {
   @Inject
   private ConfigHandler configHandler;
 
+  @Inject
+  private PaprikaPrecomputer precomputer;
+
   @Inject
   private ArtifactDefProvider artifactDefProvider;
 
+  @Inject
+  private ParsedModelCache parsedModelCache;
+
   @Inject
   private ArtifactStatusExaminer artifactStatusExaminer;
 
@@ -73,7 +90,15 @@ public class PaprikaModelProcessor extends DefaultModelProcessor {
 
   @Override
   public Model read( File input, Map<String, ?> options ) throws IOException {
+
+    if( !Config.isSkipped() ) {
+      Model model = parsedModelCache.read( input.toPath() );
+      if( model != null )
+        return updateModel( model, options );
+    }
+
     return updateModel( super.read( input, options ), options );
+
   }
 
   @Override
@@ -83,7 +108,19 @@ public class PaprikaModelProcessor extends DefaultModelProcessor {
 
   @Override
   public Model read( InputStream input, Map<String, ?> options ) throws IOException {
+
+    Source source = options == null ? null : (Source) options.get( ModelProcessor.SOURCE );
+    if( !Config.isSkipped() && source != null ) {
+      File pom = new File( source.getLocation() );
+      Model model = pom.isFile() ? parsedModelCache.read( pom.toPath() ) : null;
+      if( model != null ) {
+        input.close();
+        return updateModel( model, options );
+      }
+    }
+
     return updateModel( super.read( input, options ), options );
+
   }
 
   private Model updateModel( Model model, Map<String, ?> options ) throws IOException {
@@ -91,6 +128,8 @@ public class PaprikaModelProcessor extends DefaultModelProcessor {
     if( Config.isSkipped() || !isPaprikaVersion( model ) )
       return model;
 
+    precomputer.await();
+
     Source source = (Source) options.get( ModelProcessor.SOURCE );
     if( source != null ) {
       File pom = new File( source.getLocation() );
@@ -118,11 +157,9 @@ public class PaprikaModelProcessor extends DefaultModelProcessor {
     if( !properties.containsKey( TIMESTAMP_PROPERTY ) && configHandler.get( def ).isReproducible() )
       properties.put( TIMESTAMP_PROPERTY, getStringDateOf( git, status.getLastCommit() ) );
     addProperties( properties, null, status );
-    for( ArtifactDef d : artifactDefProvider.getAllDefs() )
-      addProperties( properties, d.getArtifactId(), artifactStatusExaminer.examine( d ) );
-    properties.put(
-        ArtifactDefProvider.ANALYZED_KEY,
-        ArtifactId.toString( artifactDefProvider.getAllDefs() ) );
+    for( ArtifactDef d : getPropertiesScope( def ) )
+      properties.putAll( getModuleProperties( d ) );
+    properties.put( ArtifactDefProvider.ANALYZED_KEY, getAnalyzed() );
 
     addPaprikaDependency( model );
 
@@ -130,16 +167,70 @@ public class PaprikaModelProcessor extends DefaultModelProcessor {
 
   }
 
-  private void addProperties( Properties properties, String id, ArtifactStatus status ) {
+  private String analyzed;
+
+  private String getAnalyzed() {
+    if( analyzed == null )
+      analyzed = ArtifactId.toString( artifactDefProvider.getAllDefs() );
+    return analyzed;
+  }
+
+  private final ArtifactIdCache<Map<String, String>> propertiesCache =
+      new HashMapArtifactIdCache<>();
+
+  private Map<String, String> getModuleProperties( ArtifactDef def ) {
+    return propertiesCache.get( def, () -> {
+      Map<String, String> properties = new HashMap<>();
+      addProperties( properties, def.getArtifactId(), artifactStatusExaminer.examine( def ) );
+      return Collections.unmodifiableMap( properties );
+    } );
+  }
+
+  private final ArtifactIdCache<Set<String>> referencesCache = new HashMapArtifactIdCache<>();
+
+  private Set<String> getReferences( ArtifactDef def ) {
+    return referencesCache.get( def, () -> {
+
+      String content;
+      try {
+        content = new String( Files.readAllBytes( def.getPom() ), StandardCharsets.UTF_8 );
+      } catch( IOException ex ) {
+        throw new IllegalStateException(
+            "Can not load pom " + def.getPom() + ": " + ex.getMessage(),
+            ex );
+      }
+
+      return PropertiesScope.findReferences( content );
+
+    } );
+  }
+
+  private Collection<ArtifactDef> getPropertiesScope( ArtifactDef def ) {
+
+    SortedSet<ArtifactDef> allDefs = artifactDefProvider.getAllDefs();
+    if( configHandler.get( def ).isAllModulesProperties() )
+      return allDefs;
+
+    SortedSet<ArtifactDef> scope = PropertiesScope.getScope( def, allDefs, this::getReferences );
+    logger.log( "Properties of {} modules injected in {}", scope.size(), def );
+
+    return scope;
+
+  }
+
+  private void addProperties(
+      Map<? super String, ? super String> properties,
+      String id,
+      ArtifactStatus status ) {
 
     String prefix = id == null ? "paprika" : "paprika." + id;
 
-    RevCommit lastCommit = status.getLastCommit();
+    CommitInfo lastCommit = status.getLastCommit();
     properties.put( prefix + ".lastCommit", getNameOf( lastCommit ) );
     properties.put( prefix + ".lastCommit.short", getPrettyNameOf( lastCommit ) );
     properties.put( prefix + ".lastModification", getStringDateOf( git, lastCommit ) );
 
-    RevCommit tagCommit = status.getTagCommit();
+    CommitInfo tagCommit = status.getTagCommit();
     properties.put( prefix + ".tagCommit", getNameOf( tagCommit ) );
     properties.put( prefix + ".tagCommit.short", getPrettyNameOf( tagCommit ) );
 
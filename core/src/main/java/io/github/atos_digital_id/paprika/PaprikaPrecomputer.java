@@ -0,0 +1,173 @@
+package io.github.atos_digital_id.paprika;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.maven.execution.MavenSession;
+
+import io.github.atos_digital_id.paprika.config.ConfigHandler;
+import io.github.atos_digital_id.paprika.history.ArtifactStatusExaminer;
+import io.github.atos_digital_id.paprika.project.ArtifactDef;
+import io.github.atos_digital_id.paprika.project.ArtifactDefProvider;
+import io.github.atos_digital_id.paprika.utils.log.PaprikaLogger;
+import lombok.NonNull;
+
+/**
+ * Speculative computation of the modules and of their states, started in
+ * background at the beginning of the Maven session. Until the computation is
+ * done, the computed components should not be used outside of the background
+ * thread: {@link PaprikaPrecomputer#await} should be called before any access.
+ **/
+@Named
+@Singleton
+public class PaprikaPrecomputer {
+
+  @Inject
+  private PaprikaLogger logger;
+
+  @Inject
+  private ConfigHandler configHandler;
+
+  @Inject
+  private ArtifactDefProvider artifactDefProvider;
+
+  @Inject
+  private ArtifactStatusExaminer artifactStatusExaminer;
+
+  private ExecutorService executor;
+
+  private Future<?> future;
+
+  /**
+   * Starts the precomputation, if enabled by the configuration.
+   *
+   * @param session the starting session.
+   **/
+  public synchronized void start( @NonNull MavenSession session ) {
+
+    if( future != null || !configHandler.get().isPrecompute() )
+      return;
+
+    File pom = session.getRequest().getPom();
+    if( pom == null || !pom.isFile() ) {
+      logger.log( "No pom file to precompute" );
+      return;
+    }
+
+    executor = Executors.newSingleThreadExecutor( runnable -> {
+      Thread thread = new Thread( runnable, "paprika-precompute" );
+      thread.setDaemon( true );
+      return thread;
+    } );
+
+    future = executor.submit( () -> {
+
+      logger.log( "Precomputing modules from {}", pom );
+      artifactDefProvider.load( pom.toPath() );
+
+      for( ArtifactDef def : artifactDefProvider.getAllDefs() )
+        artifactStatusExaminer.examine( def );
+
+      logger.log( "Precomputation done" );
+
+      return null;
+
+    } );
+
+  }
+
+  /**
+   * Waits for the end of the precomputation, if started.
+   *
+   * @throws IOException if the precomputation failed with an IO exception.
+   **/
+  public void await() throws IOException {
+
+    Future<?> current;
+    synchronized( this ) {
+      current = future;
+    }
+
+    if( current == null )
+      return;
+
+    try {
+      current.get();
+    } catch( InterruptedException ex ) {
+      Thread.currentThread().interrupt();
+      throw new IOException( "Precomputation interrupted", ex );
+    } catch( ExecutionException ex ) {
+      Throwable cause = ex.getCause();
+      if( cause instanceof IOException )
+        throw (IOException) cause;
+      if( cause instanceof RuntimeException )
+        throw (RuntimeException) cause;
+      if( cause instanceof Error )
+        throw (Error) cause;
+      throw new IllegalStateException( "Precomputation failed: " + cause.getMessage(), cause );
+    }
+
+  }
+
+  // maximum wait of the background thread when the session ends, in seconds
+  private static final long STOP_TIMEOUT = 30;
+
+  /**
+   * Stops the precomputation, and waits for the end of the background thread:
+   * the Git repository can be closed after. If the thread does not stop within
+   * 30 seconds (e.g. blocked in a non-interruptible read),
+   * it is abandoned: being a daemon thread, it does not prevent the JVM from
+   * exiting.
+   **/
+  public void stop() {
+
+    ExecutorService current;
+    synchronized( this ) {
+      current = executor;
+      executor = null;
+      future = null;
+    }
+
+    if( current == null )
+      return;
+
+    current.shutdownNow();
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos( STOP_TIMEOUT );
+    boolean terminated = false;
+    boolean interrupted = false;
+    while( !terminated ) {
+
+      long remaining = deadline - System.nanoTime();
+      if( remaining <= 0 ) {
+        logger.log( "Precomputation still running after {} seconds, abandoned", STOP_TIMEOUT );
+        break;
+      }
+
+      try {
+        terminated = current.awaitTermination(
+            Math.min( remaining, TimeUnit.SECONDS.toNanos( 10 ) ),
+            TimeUnit.NANOSECONDS );
+        if( !terminated )
+          logger.log( "Waiting for the end of the precomputation" );
+      } catch( InterruptedException ex ) {
+        interrupted = true;
+      }
+
+    }
+
+    if( interrupted )
+      Thread.currentThread().interrupt();
+
+  }
+
+}
@@ -110,12 +110,12 @@ public class PaprikaReleaseMojo extends AbstractMojo {
           if( !status.getVersion().isSnapshot() )
             continue;
 
-          RevCommit lastCommit = status.getLastCommit();
-
-          if( lastCommit == null )
+          if( status.getLastCommit() == null )
             throw new MojoExecutionException(
                 "The project " + def + " has modifications not yet committed." );
 
+          RevCommit lastCommit = revwalk.parseCommit( status.getLastCommit() );
+
           if( configHandler.get( def ).isSkipTagged()
               && lastCommitIsTagged( def, status, revwalk ) )
             continue;
@@ -128,7 +128,7 @@ public class PaprikaReleaseMojo extends AbstractMojo {
               Version.EMPTY_STRINGS,
               Version.EMPTY_STRINGS );
 
-          commands.add( new ReleaseCommand( def, status, version ) );
+          commands.add( new ReleaseCommand( def, status, version, lastCommit ) );
 
         }
 
@@ -243,14 +243,18 @@ public class PaprikaReleaseMojo extends AbstractMojo {
 
     private final String command;
 
-    public ReleaseCommand( ArtifactDef def, ArtifactStatus status, Version version ) {
+    public ReleaseCommand(
+        ArtifactDef def,
+        ArtifactStatus status,
+        Version version,
+        RevCommit lastCommit ) {
 
       this.status = status;
 
       this.config = configHandler.get( def );
 
       this.tag = artifactTags.getShortTag( def, version );
-      this.message = getMessage( def, status, config, version );
+      this.message = getMessage( def, status, config, version, lastCommit );
 
       this.command = buildCommand();
 
@@ -324,7 +328,8 @@ public class PaprikaReleaseMojo extends AbstractMojo {
       ArtifactDef def,
       ArtifactStatus status,
       Config config,
-      Version version ) {
+      Version version,
+      RevCommit lastCommit ) {
 
     String msg = config.getReleaseMessage();
 
@@ -349,7 +354,7 @@ public class PaprikaReleaseMojo extends AbstractMojo {
     context.put( "version", VersionValue.wrap( version ) );
     context.put( "baseVersion", VersionValue.wrap( status.getBaseVersion() ) );
 
-    context.put( "lastCommit", CommitValue.wrap( gitHandler, status.getLastCommit() ) );
+    context.put( "lastCommit", CommitValue.wrap( gitHandler, lastCommit ) );
 
     return TemplateEngine.execute( config, msg, context );
 
@@ -3,6 +3,9 @@ package io.github.atos_digital_id.paprika.config;
 import static lombok.AccessLevel.PRIVATE;
 
 import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import io.github.atos_digital_id.paprika.history.ArtifactStatusExaminer.IncrementPart;
 import io.github.atos_digital_id.paprika.utils.Patterns;
@@ -10,6 +13,7 @@ import io.github.atos_digital_id.paprika.utils.Patterns.PathFilter;
 import io.github.atos_digital_id.paprika.utils.templating.engine.Escaper;
 import io.github.atos_digital_id.paprika.version.Version;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
 
@@ -31,6 +35,67 @@ public class Config {
   @NonNull
   private final Path dir;
 
+  @Getter( PRIVATE )
+  private final Map<String, String> properties;
+
+  @Getter( PRIVATE )
+  @EqualsAndHashCode.Exclude
+  private final Map<String, String> partialTemplates = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor. All the configuration values are resolved immediately, the
+   * directory configuration being a snapshot for the whole session.
+   *
+   * @param configProperties the properties file manager.
+   * @param dir the configured directory.
+   **/
+  public Config( @NonNull ConfigProperties configProperties, @NonNull Path dir ) {
+    this( configProperties, dir, Patterns::pathFilter );
+  }
+
+  /**
+   * Constructor, compiling the path filters with a given function, e.g. to
+   * share them between the configurations of a session.
+   *
+   * @param configProperties the properties file manager.
+   * @param dir the configured directory.
+   * @param pathFilters the path filters compiler.
+   **/
+  public Config(
+      @NonNull ConfigProperties configProperties,
+      @NonNull Path dir,
+      @NonNull Function<String, PathFilter> pathFilters ) {
+
+    this.configProperties = configProperties;
+    this.dir = dir;
+    this.properties = configProperties.get( dir );
+
+    this.nonQualifierBranches = computeNonQualifierBranches();
+    this.nonQualifiedBranchPredicate = pathFilters.apply( getNonQualifierBranches() );
+    this.initVersion = computeInitVersion();
+    this.observedPath = computeObservedPath();
+    this.observedPathPredicate = pathFilters.apply( getObservedPath() );
+    this.reproducible = computeReproducible();
+    this.precompute = computePrecompute();
+    this.storeModules = computeStoreModules();
+    this.allModulesProperties = computeAllModulesProperties();
+    this.releaseLastModification = computeReleaseLastModification();
+    this.releaseAnnotated = computeReleaseAnnotated();
+    this.releaseSigned = computeReleaseSigned();
+    this.releaseMessage = computeReleaseMessage();
+    this.releaseIgnored = computeReleaseIgnored();
+    this.releaseSubModules = computeReleaseSubModules();
+    this.skipTagged = computeSkipTagged();
+    this.releaseOutput = computeReleaseOutput();
+    this.releaseExec = computeReleaseExec();
+    this.changelogFrom = computeChangelogFrom();
+    this.changelogTo = computeChangelogTo();
+    this.changelogOutput = computeChangelogOutput();
+    this.changelogTemplate = computeChangelogTemplate();
+    this.templateParallel = computeTemplateParallel();
+
+  }
+
   private String getConfigValue( String sys, String env, String prop, String def ) {
 
     String value = null;
@@ -39,7 +104,7 @@ public class Config {
     if( value == null && env != null )
       value = System.getenv( env );
     if( value == null && prop != null )
-      value = configProperties.get( dir ).get( prop );
+      value = properties.get( prop );
     if( value == null )
       value = def;
 
@@ -85,8 +150,7 @@ public class Config {
    *
    * @return the non qualifier branch names.
    **/
-  @Getter( lazy = true )
-  private final String nonQualifierBranches = computeNonQualifierBranches();
+  private final String nonQualifierBranches;
 
   private String computeNonQualifierBranches() {
     return getConfigValue(
@@ -102,12 +166,7 @@ public class Config {
    *
    * @return a qualified branch name predicate.
    **/
-  @Getter( lazy = true )
-  private final PathFilter nonQualifiedBranchPredicate = parseNonQualifiedBranches();
-
-  private PathFilter parseNonQualifiedBranches() {
-    return Patterns.pathFilter( getNonQualifierBranches() );
-  }
+  private final PathFilter nonQualifiedBranchPredicate;
 
   /**
    * Test if a branch should be qualified. Returns
@@ -127,8 +186,7 @@ public class Config {
    *
    * @return the initial version.
    **/
-  @Getter( lazy = true )
-  private final Version initVersion = computeInitVersion();
+  private final Version initVersion;
 
   private Version computeInitVersion() {
     return Version.parse(
@@ -143,8 +201,7 @@ public class Config {
    *
    * @return the observed path.
    **/
-  @Getter( lazy = true )
-  private final String observedPath = computeObservedPath();
+  private final String observedPath;
 
   private String computeObservedPath() {
     return getConfigValue(
@@ -160,12 +217,7 @@ public class Config {
    *
    * @return an observed path predicate.
    **/
-  @Getter( lazy = true )
-  private final PathFilter observedPathPredicate = parseObservedPath();
-
-  private PathFilter parseObservedPath() {
-    return Patterns.pathFilter( getObservedPath() );
-  }
+  private final PathFilter observedPathPredicate;
 
   /**
    * Reproducible builds flag. Default value: {@code true}. Property name:
@@ -174,8 +226,7 @@ public class Config {
    *
    * @return the reproducible builds flag.
    **/
-  @Getter( lazy = true )
-  private final boolean reproducible = computeReproducible();
+  private final boolean reproducible;
 
   private boolean computeReproducible() {
     return getBoolValue(
@@ -185,6 +236,55 @@ public class Config {
         true );
   }
 
+  /**
+   * Precompute the modules and their states in background, as soon as the
+   * Maven session starts. Default value: {@code false}. Property name:
+   * {@code precompute}. Environment variable: {@code PAPRIKA_PRECOMPUTE}.
+   * System property: {@code paprika.precompute}.
+   *
+   * @return the precomputation flag.
+   **/
+  private final boolean precompute;
+
+  private boolean computePrecompute() {
+    return getBoolValue( "paprika.precompute", "PAPRIKA_PRECOMPUTE", "precompute", false );
+  }
+
+  /**
+   * Store the discovered modules in the Git directory, and reuse them while the
+   * pom files don't change. Default value: {@code false}. Property name:
+   * {@code storeModules}. Environment variable: {@code PAPRIKA_STORE_MODULES}.
+   * System property: {@code paprika.storeModules}.
+   *
+   * @return the store modules flag.
+   **/
+  private final boolean storeModules;
+
+  private boolean computeStoreModules() {
+    return getBoolValue( "paprika.storeModules", "PAPRIKA_STORE_MODULES", "storeModules", false );
+  }
+
+  /**
+   * Inject the properties of all modules in each model. If {@code false}, the
+   * properties {@code paprika.<artifactId>.*} are only defined for the module
+   * itself, its dependencies, its parents, and the modules referenced in the
+   * pom files of the module and its parents. Default value: {@code false}.
+   * Property name: {@code allModulesProperties}. Environment variable:
+   * {@code PAPRIKA_ALL_MODULES_PROPERTIES}. System property:
+   * {@code paprika.allModulesProperties}.
+   *
+   * @return the all modules properties flag.
+   **/
+  private final boolean allModulesProperties;
+
+  private boolean computeAllModulesProperties() {
+    return getBoolValue(
+        "paprika.allModulesProperties",
+        "PAPRIKA_ALL_MODULES_PROPERTIES",
+        "allModulesProperties",
+        false );
+  }
+
   /*
    * Release
    */
@@ -197,8 +297,7 @@ public class Config {
    *
    * @return the last modification flag.
    */
-  @Getter( lazy = true )
-  private final boolean releaseLastModification = computeReleaseLastModification();
+  private final boolean releaseLastModification;
 
   private boolean computeReleaseLastModification() {
     return getBoolValue(
@@ -215,8 +314,7 @@ public class Config {
    *
    * @return the annotated flag.
    */
-  @Getter( lazy = true )
-  private final boolean releaseAnnotated = computeReleaseAnnotated();
+  private final boolean releaseAnnotated;
 
   private boolean computeReleaseAnnotated() {
     return getBoolValue( "annotated", "PAPRIKA_RELEASE_ANNOTATED", "release.annotated", true );
@@ -229,8 +327,7 @@ public class Config {
    *
    * @return the signed flag.
    */
-  @Getter( lazy = true )
-  private final boolean releaseSigned = computeReleaseSigned();
+  private final boolean releaseSigned;
 
   private boolean computeReleaseSigned() {
     return getBoolValue( "signed", "PAPRIKA_RELEASE_SIGNED", "release.signed", false );
@@ -244,8 +341,7 @@ public class Config {
    *
    * @return the release message.
    */
-  @Getter( lazy = true )
-  private final String releaseMessage = computeReleaseMessage();
+  private final String releaseMessage;
 
   private String computeReleaseMessage() {
     return getConfigValue(
@@ -261,8 +357,7 @@ public class Config {
    *
    * @return the ignored flag.
    */
-  @Getter( lazy = true )
-  private final boolean releaseIgnored = computeReleaseIgnored();
+  private final boolean releaseIgnored;
 
   private boolean computeReleaseIgnored() {
     return getBoolValue( null, null, "release.ignored", false );
@@ -275,8 +370,7 @@ public class Config {
    *
    * @return the sub-modules flag.
    */
-  @Getter( lazy = true )
-  private final boolean releaseSubModules = computeReleaseSubModules();
+  private final boolean releaseSubModules;
 
   private boolean computeReleaseSubModules() {
     return getBoolValue( "subModules", "PAPRIKA_RELEASE_SUBMODULES", "release.subModules", true );
@@ -307,8 +401,7 @@ public class Config {
    *
    * @return skip the module if the last commit is already tagged.
    **/
-  @Getter( lazy = true )
-  private final boolean skipTagged = computeSkipTagged();
+  private final boolean skipTagged;
 
   private boolean computeSkipTagged() {
     return getBoolValue( "skipTagged", "PAPRIKA_RELEASE_SKIP_TAGGED", "release.skipTagged", true );
@@ -321,8 +414,7 @@ public class Config {
    *
    * @return the path of the output file.
    **/
-  @Getter( lazy = true )
-  private final Path releaseOutput = computeReleaseOutput();
+  private final Path releaseOutput;
 
   private Path computeReleaseOutput() {
     String value = getConfigValue( "output", "PAPRIKA_RELEASE_OUTPUT", "release.output", "" );
@@ -337,8 +429,7 @@ public class Config {
    *
    * @return the execution flag.
    */
-  @Getter( lazy = true )
-  private final boolean releaseExec = computeReleaseExec();
+  private final boolean releaseExec;
 
   private boolean computeReleaseExec() {
     return getBoolValue( "exec", "PAPRIKA_RELEASE_EXEC", null, false );
@@ -358,8 +449,7 @@ public class Config {
    *
    * @return the changelog start
    **/
-  @Getter( lazy = true )
-  private final String changelogFrom = computeChangelogFrom();
+  private final String changelogFrom;
 
   private String computeChangelogFrom() {
     return getConfigValue( "from", "PAPRIKA_CHANGELOG_FROM", null, "" );
@@ -373,8 +463,7 @@ public class Config {
    *
    * @return the changelog end.
    */
-  @Getter( lazy = true )
-  private final String changelogTo = computeChangelogTo();
+  private final String changelogTo;
 
   private String computeChangelogTo() {
     return getConfigValue( "to", "PAPRIKA_CHANGELOG_TO", null, "HEAD" );
@@ -388,8 +477,7 @@ public class Config {
    *
    * @return the changelog output.
    */
-  @Getter( lazy = true )
-  private final Path changelogOutput = computeChangelogOutput();
+  private final Path changelogOutput;
 
   private Path computeChangelogOutput() {
     String value = getConfigValue( "output", "PAPRIKA_CHANGELOG_OUTPUT", "changelog.output", "" );
@@ -427,8 +515,7 @@ public class Config {
    *
    * @return the changelog template.
    **/
-  @Getter( lazy = true )
-  private final String changelogTemplate = computeChangelogTemplate();
+  private final String changelogTemplate;
 
   private static final String DEFAULT_CHANGELOG_TEMPLATE = String.join(
       "\n",
@@ -459,6 +546,26 @@ public class Config {
         DEFAULT_CHANGELOG_TEMPLATE );
   }
 
+  /**
+   * Render the items of the long lists in parallel, by chunks written in order
+   * as soon as they are rendered. From the first item executing a lambda, the
+   * items are rendered serially.
+   * Default value: {@code false}. Property name: {@code template.parallel}.
+   * Environment variable: {@code PAPRIKA_TEMPLATE_PARALLEL}. System property:
+   * {@code paprika.templateParallel}.
+   *
+   * @return the parallel rendering flag.
+   */
+  private final boolean templateParallel;
+
+  private boolean computeTemplateParallel() {
+    return getBoolValue(
+        "paprika.templateParallel",
+        "PAPRIKA_TEMPLATE_PARALLEL",
+        "template.parallel",
+        false );
+  }
+
   /**
    * Template escaper to use. Can be empty, {@code NONE}, {@code HTML} or
    * {@code JSON}. Default value: {@code NONE}. Property name:
@@ -488,6 +595,10 @@ public class Config {
    * @return the partial template.
    */
   public String getPartialTemplate( String name ) {
+    return partialTemplates.computeIfAbsent( name, this::computePartialTemplate );
+  }
+
+  private String computePartialTemplate( String name ) {
 
     String partial = null;
     if( partial == null )
@@ -495,7 +606,7 @@ public class Config {
     if( partial == null )
       partial = System.getenv( "PAPRIKA_PARTIAL_" + name.toUpperCase().replaceAll( "\\W", "_" ) );
     if( partial == null )
-      partial = configProperties.get( dir ).get( "template.partial." + name );
+      partial = properties.get( "template.partial." + name );
 
     return partial == null ? "" : partial;
 
@@ -1,8 +1,10 @@
 package io.github.atos_digital_id.paprika.config;
 
 import java.nio.file.Path;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -10,6 +12,8 @@ import javax.inject.Singleton;
 
 import io.github.atos_digital_id.paprika.GitHandler;
 import io.github.atos_digital_id.paprika.project.ArtifactDef;
+import io.github.atos_digital_id.paprika.utils.Patterns;
+import io.github.atos_digital_id.paprika.utils.Patterns.PathFilter;
 import lombok.NonNull;
 
 /**
@@ -25,7 +29,14 @@ public class ConfigHandler {
   @Inject
   private ConfigProperties configProperties;
 
-  private final Map<Path, Config> configs = new HashMap<>();
+  private final Map<Path, Config> configs = new ConcurrentHashMap<>();
+
+  // compiled filters of the session, shared by the identical expressions
+  private final Map<String, PathFilter> pathFilters = new ConcurrentHashMap<>();
+
+  private final Function<String, PathFilter> pathFilterInterner =
+      exp -> exp == null ? Patterns.pathFilter( null )
+          : pathFilters.computeIfAbsent( exp, Patterns::pathFilter );
 
   /**
    * Gets the configuration of a directory.
@@ -34,7 +45,9 @@ public class ConfigHandler {
    * @return the configuration of the directory.
    **/
   public Config get( @NonNull Path dir ) {
-    return configs.computeIfAbsent( dir, path -> new Config( configProperties, dir ) );
+    return configs.computeIfAbsent(
+        dir,
+        path -> new Config( configProperties, dir, pathFilterInterner ) );
   }
 
   /**
@@ -56,4 +69,23 @@ public class ConfigHandler {
     return get( def.getWorkingDir() );
   }
 
+  /**
+   * Resolves up front the configurations of some modules, so the later
+   * accesses only read the snapshot.
+   *
+   * @param defs the configured modules.
+   **/
+  public void snapshot( @NonNull Collection<ArtifactDef> defs ) {
+    for( ArtifactDef def : defs )
+      get( def );
+  }
+
+  /**
+   * Clears the configurations and the compiled filters of the session.
+   **/
+  public void clear() {
+    configs.clear();
+    pathFilters.clear();
+  }
+
 }
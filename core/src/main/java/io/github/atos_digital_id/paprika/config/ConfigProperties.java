@@ -7,6 +7,7 @@ import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -29,7 +30,7 @@ public class ConfigProperties {
   @Inject
   private GitHandler gitHandler;
 
-  private final Map<Path, Map<String, String>> propsMap = new HashMap<>();
+  private final Map<Path, Map<String, String>> propsMap = new ConcurrentHashMap<>();
 
   /**
    * Gets the properties file content of a directory.
@@ -1,12 +1,18 @@
 package io.github.atos_digital_id.paprika.history;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -14,9 +20,9 @@ import javax.inject.Singleton;
 
 import org.apache.maven.model.io.ModelReader;
 import org.eclipse.jgit.diff.ContentSource;
-import org.eclipse.jgit.diff.RawText;
-import org.eclipse.jgit.errors.BinaryBlobException;
+import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.errors.StopWalkException;
+import org.eclipse.jgit.lib.AsyncObjectLoaderQueue;
 import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectLoader;
@@ -31,6 +37,7 @@ import org.eclipse.jgit.treewalk.FileTreeIterator;
 import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.treewalk.filter.TreeFilter;
 import org.eclipse.jgit.util.LfsFactory;
+import org.eclipse.jgit.util.RawParseUtils;
 
 import io.github.atos_digital_id.paprika.GitHandler;
 import io.github.atos_digital_id.paprika.config.Config;
@@ -46,6 +53,7 @@ import io.github.atos_digital_id.paprika.utils.cache.HashMapArtifactIdCache;
 import io.github.atos_digital_id.paprika.utils.log.PaprikaLogger;
 import lombok.Data;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 
 /**
  * Module checkers manager.
@@ -83,6 +91,11 @@ public class ArtifactCheckers {
     return cache.get( def, () -> new Checker( def ) );
   }
 
+  private static AbstractTreeIterator currentEntry( TreeWalk walk ) {
+    AbstractTreeIterator entry = walk.getTree( 0, AbstractTreeIterator.class );
+    return entry != null ? entry : walk.getTree( 1, AbstractTreeIterator.class );
+  }
+
   @Data
   private static class PathPart {
 
@@ -92,7 +105,7 @@ public class ArtifactCheckers {
 
     @Override
     public String toString() {
-      return start + ":" + new String( bytes );
+      return start + ":" + new String( bytes, StandardCharsets.UTF_8 );
     }
 
   }
@@ -112,6 +125,8 @@ public class ArtifactCheckers {
 
     private final PathFilter filter;
 
+    private final String pomPath;
+
     private final String loggedPath;
 
     /**
@@ -130,8 +145,9 @@ public class ArtifactCheckers {
       int start = 0;
       for( String e : pElts ) {
         if( !e.isEmpty() ) {
-          parts.add( new PathPart( start, e.getBytes() ) );
-          start += e.length() + 1;
+          byte[] bytes = e.getBytes( StandardCharsets.UTF_8 );
+          parts.add( new PathPart( start, bytes ) );
+          start += bytes.length + 1;
         }
       }
       this.workingDir = parts;
@@ -142,6 +158,8 @@ public class ArtifactCheckers {
 
       this.filter = config.getObservedPathPredicate();
 
+      this.pomPath = p.isEmpty() ? POM_PATH : p + "/" + POM_PATH;
+
       this.loggedPath = p + "/{" + config.getObservedPath() + "}";
 
     }
@@ -152,34 +170,31 @@ public class ArtifactCheckers {
 
       private boolean fs;
 
-      private String currentPath = null;
-
       public FastFilter fs( boolean fs ) {
         this.fs = fs;
         return this;
       }
 
-      public String getCurrentPath() {
-        return this.currentPath;
-      }
-
       @Override
       public boolean include( TreeWalk walk ) throws IOException {
 
         int depth = walk.getDepth();
 
+        // the path buffer of the current entry, not copied
+        AbstractTreeIterator entry = currentEntry( walk );
+        byte[] rawPath = entry.getEntryPathBuffer();
+        int rawPathLen = entry.getEntryPathLength();
+
         // Search working directory
 
         if( depth < workingDirDepth ) {
 
-          byte[] rawPath = walk.getRawPath();
-
           PathPart part = workingDir.get( depth );
           int partStart = part.getStart();
           byte[] partBytes = part.getBytes();
 
           for( int i = 0; i < partBytes.length; i++ ) {
-            if( rawPath.length <= partStart + i )
+            if( rawPathLen <= partStart + i )
               return false;
             int comp = ( rawPath[partStart + i] & 0xff ) - ( partBytes[i] & 0xff );
             if( comp < 0 )
@@ -187,7 +202,7 @@ public class ArtifactCheckers {
             if( comp > 0 )
               throw StopWalkException.INSTANCE;
           }
-          if( rawPath.length > partStart + partBytes.length ) {
+          if( rawPathLen > partStart + partBytes.length ) {
             if( rawPath[partStart + partBytes.length] > '/' )
               throw StopWalkException.INSTANCE;
             return false;
@@ -201,10 +216,13 @@ public class ArtifactCheckers {
 
         }
 
-        this.currentPath = walk.getPathString().substring( workingDirLen );
-
         // Filter observable paths
-        if( walk.isSubtree() && filter.partial( this.currentPath ) == PathFilterResult.TREE_MATCH )
+        if( walk.isSubtree()
+            && filter.partial(
+                rawPath,
+                workingDirLen,
+                rawPathLen - workingDirLen,
+                depth - workingDirDepth ) == PathFilterResult.TREE_MATCH )
           return true;
 
         // Exclude ignored files
@@ -265,12 +283,16 @@ public class ArtifactCheckers {
 
         while( walk.next() ) {
 
-          String path = treeFilter.getCurrentPath();
+          AbstractTreeIterator entry = currentEntry( walk );
+          byte[] rawPath = entry.getEntryPathBuffer();
+          int rawPathLen = entry.getEntryPathLength();
+
+          String path = RawParseUtils.decode( rawPath, workingDirLen, rawPathLen );
 
           logger.stack( "Diff at {}: ", path );
           try {
 
-            if( !filter.complete( path ) ) {
+            if( !filter.complete( rawPath, workingDirLen, rawPathLen - workingDirLen ) ) {
               logger.log( "Not observed." );
               continue;
             }
@@ -282,7 +304,7 @@ public class ArtifactCheckers {
 
             BriefModel newModel;
             if( source == null ) {
-              newModel = BriefModel.ofModel( def.getModel() );
+              newModel = def.getBriefModel();
             } else {
               newModel = load( reader, source, walk, 0 );
               if( newModel == null ) {
@@ -385,6 +407,213 @@ public class ArtifactCheckers {
 
   }
 
+  /*
+   * Ownership
+   */
+
+  /**
+   * Returns the ownership of the paths of the repository by some modules,
+   * according to their working directories and observed paths.
+   *
+   * @param defs the modules.
+   * @return the path ownership.
+   **/
+  public PathOwnership<ArtifactDef> ownership( @NonNull Collection<ArtifactDef> defs ) {
+
+    PathOwnership<ArtifactDef> ownership = new PathOwnership<>();
+    for( ArtifactDef def : defs )
+      ownership.add(
+          gitHandler.relativize( def.getWorkingDir() ),
+          def,
+          configHandler.get( def ).getObservedPathPredicate() );
+
+    return ownership;
+
+  }
+
+  @RequiredArgsConstructor
+  private static class OwnershipFilter extends TreeFilter {
+
+    private final PathOwnership<ArtifactDef> ownership;
+
+    @Override
+    public boolean include( TreeWalk walk ) throws IOException {
+
+      if( walk.isSubtree() ) {
+        AbstractTreeIterator entry = currentEntry( walk );
+        if( !ownership.mayOwnUnder( entry.getEntryPathBuffer(), 0, entry.getEntryPathLength() ) )
+          return false;
+      }
+
+      return TreeFilter.ANY_DIFF.include( walk );
+
+    }
+
+    @Override
+    public boolean shouldBeRecursive() {
+      return false;
+    }
+
+    @Override
+    public TreeFilter clone() {
+      return this;
+    }
+
+  }
+
+  /**
+   * Returns the modules modified by a commit, compared to its first parent.
+   * Equivalent to {@link Checker#isModifiedAt} on each module, but the trees
+   * are compared only once, each difference being classified with the path
+   * ownership.
+   *
+   * @param revWalk current revWalk.
+   * @param commit tested rev commit.
+   * @param ownership the ownership of the tested modules.
+   * @return the modified modules.
+   * @throws IOException if any filesystem IO exception occurs.
+   **/
+  public SortedSet<ArtifactDef> modifiedAt(
+      @NonNull RevWalk revWalk,
+      @NonNull RevCommit commit,
+      @NonNull PathOwnership<ArtifactDef> ownership ) throws IOException {
+    return modifiedAt( revWalk, List.of( commit ), ownership ).get( 0 );
+  }
+
+  @RequiredArgsConstructor
+  private static class PomDiff {
+
+    private final SortedSet<ArtifactDef> modified;
+
+    private final ArtifactDef def;
+
+    private final String path;
+
+    private final ObjectId newId;
+
+    private final ObjectId oldId;
+
+  }
+
+  /**
+   * Returns the modules modified by each commit of a history, compared to its
+   * first parent. The modified pom files found while comparing the trees are
+   * loaded in bulk, and compared once all the trees are compared.
+   *
+   * @param revWalk current revWalk.
+   * @param commits tested rev commits.
+   * @param ownership the ownership of the tested modules.
+   * @return the modified modules, in the order of the commits.
+   * @throws IOException if any filesystem IO exception occurs.
+   **/
+  public List<SortedSet<ArtifactDef>> modifiedAt(
+      @NonNull RevWalk revWalk,
+      @NonNull List<RevCommit> commits,
+      @NonNull PathOwnership<ArtifactDef> ownership ) throws IOException {
+
+    ObjectReader reader = revWalk.getObjectReader();
+    int total = ownership.getAllOwners().size();
+
+    List<SortedSet<ArtifactDef>> result = new ArrayList<>( commits.size() );
+    List<PomDiff> pomDiffs = new ArrayList<>();
+    Set<ObjectId> pomIds = new LinkedHashSet<>();
+
+    for( RevCommit commit : commits ) {
+
+      SortedSet<ArtifactDef> modified = new TreeSet<>();
+      result.add( modified );
+
+      RevCommit[] parents = commit.getParents();
+      if( parents.length == 0 ) {
+        modified.addAll( ownership.getAllOwners() );
+        continue;
+      }
+      RevCommit parent = parents[0];
+      revWalk.parseHeaders( parent );
+
+      logger.log( "Compare commit {} and {}", Pretty.id( commit ), Pretty.id( parent ) );
+
+      try( TreeWalk walk = new TreeWalk( gitHandler.repository(), reader ) ) {
+
+        walk.addTree( commit.getTree() );
+        walk.addTree( parent.getTree() );
+        walk.setRecursive( true );
+        walk.setFilter( new OwnershipFilter( ownership ) );
+
+        while( modified.size() < total && walk.next() ) {
+
+          AbstractTreeIterator entry = currentEntry( walk );
+          List<ArtifactDef> owners =
+              ownership.getOwners( entry.getEntryPathBuffer(), 0, entry.getEntryPathLength() );
+          if( owners.isEmpty() )
+            continue;
+
+          String path = walk.getPathString();
+
+          logger.stack( "Diff at {}: ", path );
+          try {
+
+            for( ArtifactDef def : owners ) {
+
+              if( modified.contains( def ) )
+                continue;
+
+              if( !create( def ).pomPath.equals( path ) ) {
+                logger.log( "Diff found in {}.", def );
+                modified.add( def );
+                continue;
+              }
+
+              ObjectId newId = walk.getObjectId( 0 );
+              ObjectId oldId = walk.getObjectId( 1 );
+              if( newId.equals( ObjectId.zeroId() ) || oldId.equals( ObjectId.zeroId() ) ) {
+                logger.log( "Pom file of {} added or removed.", def );
+                modified.add( def );
+                continue;
+              }
+
+              // compared once the pom files are loaded
+              pomDiffs.add( new PomDiff( modified, def, path, newId, oldId ) );
+              pomIds.add( newId );
+              pomIds.add( oldId );
+
+            }
+
+          } finally {
+            logger.unstack();
+          }
+
+        }
+
+      }
+
+    }
+
+    if( pomDiffs.isEmpty() )
+      return result;
+
+    logger.log( "Load {} pom files", pomIds.size() );
+    Map<ObjectId, BriefModel> models = loadPoms( reader, pomIds );
+    ContentSource source = ContentSource.create( reader );
+
+    for( PomDiff diff : pomDiffs ) {
+
+      if( diff.modified.contains( diff.def ) )
+        continue;
+
+      BriefModel newModel = load( reader, source, models, diff.newId, diff.path );
+      BriefModel oldModel = load( reader, source, models, diff.oldId, diff.path );
+      if( newModel == null || oldModel == null || !newModel.equals( oldModel ) ) {
+        logger.log( "Pom files of {} are different at {}.", diff.def, diff.path );
+        diff.modified.add( diff.def );
+      }
+
+    }
+
+    return result;
+
+  }
+
   /*
    * POM
    */
@@ -400,6 +629,40 @@ public class ArtifactCheckers {
 
   };
 
+  private Map<ObjectId, BriefModel> loadPoms( ObjectReader reader, Collection<ObjectId> ids )
+      throws IOException {
+
+    // the parsed models are only kept for the caller
+    Map<ObjectId, BriefModel> models = new HashMap<>();
+
+    AsyncObjectLoaderQueue<ObjectId> queue = reader.open( ids, false );
+    try {
+
+      while( queue.next() ) {
+
+        ObjectId id = queue.getObjectId();
+
+        ObjectLoader objectLoader;
+        try {
+          objectLoader = queue.open();
+        } catch( MissingObjectException ex ) {
+          // will be reported by a direct load
+          continue;
+        }
+
+        if( objectLoader != null )
+          models.put( id.copy(), parse( objectLoader, id.name() ) );
+
+      }
+
+    } finally {
+      queue.release();
+    }
+
+    return models;
+
+  }
+
   private BriefModel load( ObjectReader reader, ContentSource source, TreeWalk walk, int n )
       throws IOException {
 
@@ -411,28 +674,74 @@ public class ArtifactCheckers {
     if( model != null )
       return model;
 
-    ObjectLoader objectLoader = LfsFactory.getInstance()
-        .applySmudgeFilter( gitHandler.repository(), source.open( null, id ), null );
+    model = parse( source.open( null, id ), walk.getPathString() );
+    pomCache.put( id, model );
 
-    byte[] bytes;
-    try {
-      bytes = RawText.load( objectLoader, (int) objectLoader.getSize() ).getRawContent();
-    } catch( BinaryBlobException ex ) {
-      throw new IOException( "Can not load " + walk.getPathString() + ": " + ex.getMessage(), ex );
-    }
+    return model;
+
+  }
+
+  private BriefModel load(
+      ObjectReader reader,
+      ContentSource source,
+      Map<ObjectId, BriefModel> models,
+      ObjectId id,
+      String path ) throws IOException {
+
+    if( models.containsKey( id ) )
+      return models.get( id );
+
+    // missing from the bulk load
+    BriefModel model = parse( source.open( null, id ), path );
+    models.put( id, model );
+
+    return model;
+
+  }
+
+  private static final byte[] LFS_POINTER_PREFIX =
+      "version https://git-lfs.github.com/spec/".getBytes( StandardCharsets.US_ASCII );
 
-    if( bytes == null || bytes.length == 0 )
+  private static final int LFS_POINTER_MAX_SIZE = 1024;
+
+  private static boolean isLfsPointer( ObjectLoader loader ) throws IOException {
+
+    long size = loader.getSize();
+    if( size < LFS_POINTER_PREFIX.length || size > LFS_POINTER_MAX_SIZE || loader.isLarge() )
+      return false;
+
+    byte[] bytes = loader.getCachedBytes();
+    for( int i = 0; i < LFS_POINTER_PREFIX.length; i++ )
+      if( bytes[i] != LFS_POINTER_PREFIX[i] )
+        return false;
+
+    return true;
+
+  }
+
+  private BriefModel parse( ObjectLoader loader, String path ) throws IOException {
+
+    ObjectLoader objectLoader = loader;
+    if( isLfsPointer( objectLoader ) )
+      objectLoader =
+          LfsFactory.getInstance().applySmudgeFilter( gitHandler.repository(), objectLoader, null );
+
+    if( objectLoader.getSize() == 0 )
       return null;
 
-    try( InputStream in = new ByteArrayInputStream( bytes ) ) {
-      model = BriefModel.ofModel( modelReader.read( in, null ) );
+    InputStream in;
+    try {
+      in = objectLoader.openStream();
     } catch( IOException ex ) {
-      // silent fail
+      throw new IOException( "Can not load " + path + ": " + ex.getMessage(), ex );
     }
 
-    pomCache.put( id, model );
-
-    return model;
+    try( in ) {
+      return BriefModel.ofModel( modelReader.read( in, null ) );
+    } catch( IOException ex ) {
+      // silent fail
+      return null;
+    }
 
   }
 
@@ -52,7 +52,7 @@ public class ArtifactStateProvider {
 
   private static final LastTagState NEVER_TAGGED_STATE = new LastTagState( null, null, null );
 
-  private LastTagState tagged( ArtifactDef def, RevCommit tagCommit, Ref tagref )
+  private LastTagState tagged( ArtifactDef def, CommitInfo tagCommit, Ref tagref )
       throws IOException {
 
     return new LastTagState(
@@ -103,6 +103,9 @@ public class ArtifactStateProvider {
     logger.reset( "State of {}: ", def );
     try( RevWalk revWalk = new RevWalk( gitHandler.repository() ) ) {
 
+      // only the headers are needed, except for the dates of the found commits
+      revWalk.setRetainBody( false );
+
       LastModifState lastModifState = null;
       LastTagState lastTagState = null;
 
@@ -174,11 +177,13 @@ public class ArtifactStateProvider {
           // tagged?
           if( lastTagState == null && tagsMap.containsKey( current ) ) {
 
-            lastTagState = tagged( def, current, tagsMap.get( current ) );
+            CommitInfo info = CommitInfo.of( revWalk, current );
+
+            lastTagState = tagged( def, info, tagsMap.get( current ) );
             logger.log( "Tagged with {}", lastTagState.getRefName() );
 
             if( lastModifState == null )
-              lastModifState = new LastModifState( currentSeniority, current );
+              lastModifState = new LastModifState( currentSeniority, info );
 
           }
 
@@ -190,7 +195,8 @@ public class ArtifactStateProvider {
 
           // modified?
           if( lastModifState == null && checker.isModifiedAt( revWalk, current ) ) {
-            lastModifState = new LastModifState( currentSeniority, current );
+            lastModifState =
+                new LastModifState( currentSeniority, CommitInfo.of( revWalk, current ) );
             logger.log( "Modified" );
           }
 
@@ -214,7 +220,7 @@ public class ArtifactStateProvider {
 
       if( lastModifState == null ) {
         // should not happen
-        lastModifState = new LastModifState( currentSeniority, current );
+        lastModifState = new LastModifState( currentSeniority, null );
       }
 
       return new LastModifAndTagState( lastModifState, lastTagState );
@@ -1,7 +1,5 @@
 package io.github.atos_digital_id.paprika.history;
 
-import org.eclipse.jgit.revwalk.RevCommit;
-
 import io.github.atos_digital_id.paprika.version.Version;
 import lombok.Data;
 import lombok.NonNull;
@@ -17,14 +15,14 @@ public class ArtifactStatus {
    *
    * @return the last modifying commit.
    **/
-  private final RevCommit lastCommit;
+  private final CommitInfo lastCommit;
 
   /**
    * Commit id of the last tag, {@code null} if never tagged.
    *
    * @return the last tagged commit.
    **/
-  private final RevCommit tagCommit;
+  private final CommitInfo tagCommit;
 
   /**
    * Last tag name, {@code null} if never tagged.
@@ -0,0 +1,96 @@
+package io.github.atos_digital_id.paprika.history;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Compact representation of a commit: its id and its date. Unlike a
+ * {@link RevCommit}, it is not attached to a {@link RevWalk} and doesn't
+ * retain the commit body.
+ **/
+public class CommitInfo extends ObjectId {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Instant of the commit, from the committer or the author. {@code null} if
+   * none is found.
+   *
+   * @return the instant of the commit.
+   **/
+  @Getter
+  private final Instant when;
+
+  /**
+   * Time zone of the commit, from the committer or the author. {@code null} if
+   * none is found.
+   *
+   * @return the time zone of the commit.
+   **/
+  @Getter
+  private final ZoneId zone;
+
+  /**
+   * Constructor.
+   *
+   * @param id the commit id.
+   * @param when the instant of the commit.
+   * @param zone the time zone of the commit.
+   **/
+  public CommitInfo( @NonNull AnyObjectId id, Instant when, ZoneId zone ) {
+    super( id );
+    this.when = when;
+    this.zone = zone;
+  }
+
+  /**
+   * Extracts the information of a commit. The body of the commit is parsed if
+   * needed, and disposed if it was not retained by the walk.
+   *
+   * @param revWalk the walk of the commit.
+   * @param commit the commit.
+   * @return the information of the commit.
+   * @throws IOException if the commit can not be parsed.
+   **/
+  public static CommitInfo of( @NonNull RevWalk revWalk, @NonNull RevCommit commit )
+      throws IOException {
+
+    revWalk.parseBody( commit );
+    try {
+
+      PersonIdent committer = commit.getCommitterIdent();
+      if( committer == null )
+        committer = commit.getAuthorIdent();
+      if( committer == null )
+        return new CommitInfo( commit, null, null );
+
+      return new CommitInfo( commit, committer.getWhenAsInstant(), committer.getZoneId() );
+
+    } finally {
+      if( !revWalk.isRetainBody() )
+        commit.disposeBody();
+    }
+
+  }
+
+  /**
+   * Date of the commit.
+   *
+   * @return the date of the commit, {@code null} if not found.
+   **/
+  public ZonedDateTime getDate() {
+    return when == null || zone == null ? null : ZonedDateTime.ofInstant( when, zone );
+  }
+
+}
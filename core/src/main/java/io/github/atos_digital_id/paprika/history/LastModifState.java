@@ -1,7 +1,5 @@
 package io.github.atos_digital_id.paprika.history;
 
-import org.eclipse.jgit.revwalk.RevCommit;
-
 import lombok.Data;
 
 /**
@@ -23,6 +21,6 @@ public class LastModifState {
    *
    * @return the last modifying commit.
    **/
-  private final RevCommit commit;
+  private final CommitInfo commit;
 
 }
@@ -1,7 +1,5 @@
 package io.github.atos_digital_id.paprika.history;
 
-import org.eclipse.jgit.revwalk.RevCommit;
-
 import io.github.atos_digital_id.paprika.version.Version;
 import lombok.Data;
 
@@ -16,7 +14,7 @@ public class LastTagState {
    *
    * @return the last tagged commit.
    **/
-  private final RevCommit commit;
+  private final CommitInfo commit;
 
   /**
    * Last tag, {@code null} if never tagged.
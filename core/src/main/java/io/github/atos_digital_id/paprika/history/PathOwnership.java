@@ -0,0 +1,212 @@
+package io.github.atos_digital_id.paprika.history;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.github.atos_digital_id.paprika.utils.Patterns;
+import io.github.atos_digital_id.paprika.utils.Patterns.PathFilter;
+import lombok.NonNull;
+
+/**
+ * Ownership of the paths of a repository by several owners (typically
+ * modules). Each owner has a working directory and an observed path filter,
+ * relative to its working directory. The working directories are organized in
+ * a trie of path segments, so the owners of a path are found in a single
+ * lookup, by following the segments of the path and testing only the filters
+ * of the owners met on the way.
+ *
+ * @param <T> type of the owners.
+ **/
+public class PathOwnership<T> {
+
+  private static class Node<T> {
+
+    private final byte[] name;
+
+    private final List<Node<T>> children = new ArrayList<>();
+
+    private final List<T> owners = new ArrayList<>();
+
+    private final List<PathFilter> filters = new ArrayList<>();
+
+    private Node( byte[] name ) {
+      this.name = name;
+    }
+
+    private Node<T> child( byte[] path, int start, int end ) {
+
+      int len = end - start;
+      for( Node<T> child : children ) {
+        byte[] childName = child.name;
+        if( childName.length != len )
+          continue;
+        int i = 0;
+        while( i < len && childName[i] == path[start + i] )
+          i++;
+        if( i == len )
+          return child;
+      }
+
+      return null;
+
+    }
+
+  }
+
+  private final Node<T> root = new Node<>( new byte[0] );
+
+  private final List<T> allOwners = new ArrayList<>();
+
+  private static int indexOf( byte[] path, int start, int end ) {
+    for( int i = start; i < end; i++ )
+      if( path[i] == '/' )
+        return i;
+    return -1;
+  }
+
+  /**
+   * Adds an owner.
+   *
+   * @param workingDir the working directory of the owner, relative to the root
+   *        of the repository, with {@code /} as separator.
+   * @param owner the owner.
+   * @param filter the observed path filter of the owner, relative to its
+   *        working directory.
+   **/
+  public void add( @NonNull String workingDir, @NonNull T owner, @NonNull PathFilter filter ) {
+
+    Node<T> node = root;
+    for( String segment : Patterns.split( workingDir, '/' ) ) {
+
+      if( segment.isEmpty() )
+        continue;
+
+      byte[] name = segment.getBytes( UTF_8 );
+      Node<T> child = node.child( name, 0, name.length );
+      if( child == null ) {
+        child = new Node<>( name );
+        node.children.add( child );
+      }
+      node = child;
+
+    }
+
+    node.owners.add( owner );
+    node.filters.add( filter );
+    allOwners.add( owner );
+
+  }
+
+  /**
+   * Returns all the owners.
+   *
+   * @return all the owners, in order of addition.
+   **/
+  public List<T> getAllOwners() {
+    return Collections.unmodifiableList( allOwners );
+  }
+
+  /**
+   * Returns the owners of a file.
+   *
+   * @param path the path of the file, relative to the root of the repository.
+   * @return the owners of the file.
+   **/
+  public List<T> getOwners( @NonNull String path ) {
+    byte[] bytes = path.getBytes( UTF_8 );
+    return getOwners( bytes, 0, bytes.length );
+  }
+
+  /**
+   * Returns the owners of a file.
+   *
+   * @param path the UTF-8 bytes of the path of the file, relative to the root
+   *        of the repository.
+   * @param off the offset of the path in the array.
+   * @param len the length of the path.
+   * @return the owners of the file, from the outermost working directory.
+   **/
+  public List<T> getOwners( byte[] path, int off, int len ) {
+
+    List<T> result = Collections.emptyList();
+
+    int end = off + len;
+    int start = off;
+    Node<T> node = root;
+    while( true ) {
+
+      for( int i = 0; i < node.owners.size(); i++ ) {
+        if( node.filters.get( i ).complete( path, start, end - start ) ) {
+          if( result.isEmpty() )
+            result = new ArrayList<>();
+          result.add( node.owners.get( i ) );
+        }
+      }
+
+      // the last segment is the file name
+      int sep = indexOf( path, start, end );
+      if( sep < 0 )
+        return result;
+
+      node = node.child( path, start, sep );
+      if( node == null )
+        return result;
+
+      start = sep + 1;
+
+    }
+
+  }
+
+  /**
+   * Test if a directory may contain files with owners: the directory is inside
+   * the working directory of an owner, or contains the working directory of an
+   * owner.
+   *
+   * @param path the path of the directory, relative to the root of the
+   *        repository.
+   * @return false if no file of the directory can have an owner.
+   **/
+  public boolean mayOwnUnder( @NonNull String path ) {
+    byte[] bytes = path.getBytes( UTF_8 );
+    return mayOwnUnder( bytes, 0, bytes.length );
+  }
+
+  /**
+   * Test if a directory may contain files with owners: the directory is inside
+   * the working directory of an owner, or contains the working directory of an
+   * owner.
+   *
+   * @param path the UTF-8 bytes of the path of the directory, relative to the
+   *        root of the repository.
+   * @param off the offset of the path in the array.
+   * @param len the length of the path.
+   * @return false if no file of the directory can have an owner.
+   **/
+  public boolean mayOwnUnder( byte[] path, int off, int len ) {
+
+    int end = off + len;
+    int start = off;
+    Node<T> node = root;
+    while( true ) {
+
+      if( !node.owners.isEmpty() || start >= end )
+        return true;
+
+      int sep = indexOf( path, start, end );
+      int segmentEnd = sep < 0 ? end : sep;
+
+      node = node.child( path, start, segmentEnd );
+      if( node == null )
+        return false;
+
+      start = segmentEnd + 1;
+
+    }
+
+  }
+
+}
@@ -7,9 +7,12 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.function.Supplier;
 
 import org.apache.maven.model.Model;
 
+import io.github.atos_digital_id.paprika.utils.Briefs.BriefModel;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 
@@ -50,6 +53,7 @@ public class ArtifactDef extends ArtifactId {
    *
    * @return the direct dependency ids.
    **/
+  @Getter( AccessLevel.PACKAGE )
   private final Collection<ArtifactId> dependencyIds;
 
   /**
@@ -71,13 +75,18 @@ public class ArtifactDef extends ArtifactId {
   }
 
   /**
-   * All dependencies. Recursively computed.
+   * All dependencies. Recursively computed: dependencies of the dependencies,
+   * and parent chains.
    *
    * @return all the dependencies.
    **/
   @Getter( lazy = true )
-  private final SortedSet<ArtifactDef> allDependencies =
-      Collections.unmodifiableSortedSet( resolveAllDepencies( this, new TreeSet<>() ) );
+  private final SortedSet<ArtifactDef> allDependencies = resolveAllDepencies();
+
+  private SortedSet<ArtifactDef> resolveAllDepencies() {
+    ArtifactGraph graph = artifactDefProvider.getGraph();
+    return Collections.unmodifiableSortedSet( graph.toDefs( graph.getClosure( this ) ) );
+  }
 
   /**
    * Computes all the dependencies of a bunch of module.
@@ -88,27 +97,12 @@ public class ArtifactDef extends ArtifactId {
   public static SortedSet<ArtifactDef> getAllDependencies(
       Collection<? extends ArtifactDef> coll ) {
 
-    SortedSet<ArtifactDef> deps = new TreeSet<>();
-    for( ArtifactDef def : coll )
-      resolveAllDepencies( def, deps );
-
-    return deps;
-
-  }
-
-  private static SortedSet<ArtifactDef> resolveAllDepencies(
-      ArtifactDef def,
-      SortedSet<ArtifactDef> deps ) {
-
-    for( ArtifactDef dep : def.getDependencies() )
-      if( deps.add( dep ) )
-        resolveAllDepencies( dep, deps );
+    if( coll.isEmpty() )
+      return new TreeSet<>();
 
-    Optional<ArtifactDef> parent = def.getParent();
-    while( parent.map( deps::add ).orElse( false ) )
-      parent = parent.flatMap( ArtifactDef::getParent );
-
-    return deps;
+    ArtifactDef first = coll.iterator().next();
+    ArtifactGraph graph = first.artifactDefProvider.getGraph();
+    return graph.toDefs( graph.getClosure( coll ) );
 
   }
 
@@ -135,13 +129,16 @@ public class ArtifactDef extends ArtifactId {
   @Getter( lazy = true )
   private final Path workingDir = getPom().getParent();
 
+  private final Supplier<BriefModel> briefModelSupplier;
+
   /**
-   * Loaded model from the working dir.
+   * Brief of the model loaded from the working dir. Only the parts of the model
+   * which are relevant to detect a modification are kept.
    *
-   * @return the loaded model.
+   * @return the brief of the loaded model.
    **/
-  @Getter
-  private final Model model;
+  @Getter( lazy = true )
+  private final BriefModel briefModel = this.briefModelSupplier.get();
 
   /**
    * All module names.
@@ -162,13 +159,65 @@ public class ArtifactDef extends ArtifactId {
       @NonNull Model model,
       @NonNull Set<String> modules ) {
 
+    this(
+        artifactDefProvider,
+        groupId,
+        artifactId,
+        packaging,
+        parentId,
+        dependencyIds,
+        relativePom,
+        modules,
+        constant( BriefModel.ofModel( model ) ) );
+
+  }
+
+  private static <T> Supplier<T> constant( T value ) {
+    return () -> value;
+  }
+
+  public ArtifactDef(
+      @NonNull ArtifactDefProvider artifactDefProvider,
+      @NonNull String groupId,
+      @NonNull String artifactId,
+      @NonNull String packaging,
+      ArtifactId parentId,
+      @NonNull Collection<ArtifactId> dependencyIds,
+      @NonNull Path relativePom,
+      @NonNull Supplier<Model> modelSupplier,
+      @NonNull Set<String> modules ) {
+
+    this(
+        artifactDefProvider,
+        groupId,
+        artifactId,
+        packaging,
+        parentId,
+        dependencyIds,
+        relativePom,
+        modules,
+        () -> BriefModel.ofModel( modelSupplier.get() ) );
+
+  }
+
+  private ArtifactDef(
+      ArtifactDefProvider artifactDefProvider,
+      String groupId,
+      String artifactId,
+      String packaging,
+      ArtifactId parentId,
+      Collection<ArtifactId> dependencyIds,
+      Path relativePom,
+      Set<String> modules,
+      Supplier<BriefModel> briefModelSupplier ) {
+
     super( groupId, artifactId );
     this.artifactDefProvider = artifactDefProvider;
     this.packaging = packaging;
     this.parentId = parentId;
     this.dependencyIds = new TreeSet<>( dependencyIds );
     this.relativePom = relativePom;
-    this.model = model;
+    this.briefModelSupplier = briefModelSupplier;
     this.modules = modules;
 
   }
@@ -2,17 +2,25 @@ package io.github.atos_digital_id.paprika.project;
 
 import static io.github.atos_digital_id.paprika.utils.ModelWalker.GAVUsage.MODEL;
 import static io.github.atos_digital_id.paprika.utils.ModelWalker.GAVUsage.PARENT;
+import static java.util.stream.Collectors.toSet;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -24,6 +32,8 @@ import org.apache.maven.model.Profile;
 import org.apache.maven.model.io.ModelReader;
 
 import io.github.atos_digital_id.paprika.PaprikaBuildInfo;
+import io.github.atos_digital_id.paprika.config.ConfigHandler;
+import io.github.atos_digital_id.paprika.project.ArtifactDefStore.StoredDef;
 import io.github.atos_digital_id.paprika.utils.ModelWalker;
 import io.github.atos_digital_id.paprika.utils.ModelWalker.GAV;
 import io.github.atos_digital_id.paprika.utils.Pretty;
@@ -113,6 +123,15 @@ public class ArtifactDefProvider {
   @Inject
   private ModelWalker modelWalker;
 
+  @Inject
+  private ParsedModelCache parsedModelCache;
+
+  @Inject
+  private ArtifactDefStore artifactDefStore;
+
+  @Inject
+  private ConfigHandler configHandler;
+
   private final ArtifactIdCache<ArtifactDef> cache = new HashMapArtifactIdCache<>();
 
   private final Set<ArtifactDef> defs = new HashSet<>();
@@ -126,6 +145,20 @@ public class ArtifactDefProvider {
   private final SortedSet<ArtifactDef> allDefs =
       Collections.unmodifiableSortedSet( new TreeSet<>( defs ) );
 
+  private ArtifactGraph graph;
+
+  /**
+   * Dependency graph of all the loaded modules. Computed again when new
+   * modules are loaded.
+   *
+   * @return the dependency graph.
+   **/
+  public ArtifactGraph getGraph() {
+    if( graph == null || graph.size() != defs.size() )
+      graph = new ArtifactGraph( defs );
+    return graph;
+  }
+
   /**
    * Returns the {@link ArtifactDef} associated with a {@link ArtifactId}.
    *
@@ -148,20 +181,101 @@ public class ArtifactDefProvider {
    **/
   public ArtifactDef getDef( @NonNull Model model ) throws IOException {
     ArtifactId id = ArtifactId.from( model );
-    return cache.get( id, () -> loadDef( model, new HashSet<>() ) );
+    return cache.get( id, () -> discover( model ) );
   }
 
-  private ArtifactDef loadDef( Model model, Set<ArtifactId> force ) {
+  /**
+   * Loads all the modules reachable from a pom file (recursively parent,
+   * dependencies, sub-modules).
+   *
+   * @param pom the path of the pom file to analyze.
+   **/
+  public void load( @NonNull Path pom ) {
+    discover( readModel( pom ) );
+  }
 
-    ArtifactId id = ArtifactId.from( model );
+  private ArtifactDef discover( Model model ) {
 
-    Optional<ArtifactDef> optionalDef = cache.peek( id );
-    if( optionalDef.isPresent() )
-      return optionalDef.get();
+    Path entry = null;
+    if( defs.isEmpty() && model.getPomFile() != null && configHandler.get().isStoreModules() )
+      entry = model.getPomFile().toPath().toAbsolutePath().normalize();
 
-    force.addAll( ArtifactId.fromString( model.getProperties().getProperty( ANALYZED_KEY, "" ) ) );
+    if( entry != null && loadStored( entry ) ) {
+
+      configHandler.snapshot( defs );
+
+      Optional<ArtifactDef> stored = cache.peek( ArtifactId.from( model ) );
+      if( stored.isPresent() )
+        return stored.get();
+
+      // not stored: discover it, without overwriting the store with a partial graph
+      logger.log( "Module {} not in the stored modules", ArtifactId.from( model ) );
+      entry = null;
+
+    }
+
+    ArtifactDef def;
+    preload( Collections.singleton( model ) );
+    try {
+      def = loadDef( model, new HashSet<>() );
+    } finally {
+      preloaded.clear();
+    }
+
+    if( entry != null )
+      artifactDefStore.save( entry, visitedPoms, defs );
+    visitedPoms.clear();
+
+    configHandler.snapshot( defs );
+
+    return def;
+
+  }
+
+  /*
+   * Persistent storage: the modules discovered from a pom file are stored
+   * with the blob ids of the read pom files, and reused while none of these
+   * pom files changes. The models of the stored modules are read lazily.
+   */
+
+  private final Set<Path> visitedPoms = new LinkedHashSet<>();
+
+  private boolean loadStored( Path entry ) {
+
+    List<StoredDef> storedDefs = artifactDefStore.load( entry );
+    if( storedDefs == null )
+      return false;
+
+    for( StoredDef stored : storedDefs ) {
+      Path pom = stored.getPom();
+      ArtifactDef def = new ArtifactDef(
+          this,
+          stored.getId().getGroupId(),
+          stored.getId().getArtifactId(),
+          stored.getPackaging(),
+          stored.getParentId(),
+          stored.getDependencyIds(),
+          pom,
+          () -> readModel( pom ),
+          stored.getModules() );
+      cache.set( def, def );
+      defs.add( def );
+    }
+
+    return true;
+
+  }
+
+  /*
+   * Preloading: the pom files of the modules and of the parents are read in
+   * parallel, level by level. The loading itself stays sequential, and falls
+   * back on a direct read if a pom has not been preloaded.
+   */
+
+  private final Map<Path, Model> preloaded = new ConcurrentHashMap<>();
+
+  private static Set<String> getModules( Model model ) {
 
-    // get all modules
     Set<String> modules = new HashSet<>();
 
     List<String> listModules = model.getModules();
@@ -176,6 +290,108 @@ public class ArtifactDefProvider {
           modules.addAll( listModules );
       }
 
+    return modules;
+
+  }
+
+  private static Stream<Path> getLinkedPoms( Model model ) {
+
+    File projectDirectory = model.getProjectDirectory();
+    if( projectDirectory == null )
+      return Stream.empty();
+
+    Path baseDir = projectDirectory.getAbsoluteFile().toPath();
+
+    List<Path> poms = new ArrayList<>();
+    for( String module : getModules( model ) )
+      poms.add( baseDir.resolve( module ).resolve( "pom.xml" ) );
+
+    Parent parent = model.getParent();
+    if( parent != null && isPaprikaVersion( parent ) ) {
+      String relativePom = parent.getRelativePath();
+      if( relativePom != null && !relativePom.isEmpty() )
+        poms.add( baseDir.resolve( relativePom ) );
+    }
+
+    return poms.stream().map( Path::normalize ).filter( Files::isRegularFile );
+
+  }
+
+  private Model tryReadModel( Path pom ) {
+    try {
+      Model model = parsedModelCache.read( pom );
+      return model != null ? model : modelReader.read( pom.toFile(), null );
+    } catch( IOException | RuntimeException ex ) {
+      // reported by the direct read
+      return null;
+    }
+  }
+
+  private void preload( Collection<Model> roots ) {
+
+    Set<Path> visited = new HashSet<>();
+    for( Model root : roots )
+      if( root.getPomFile() != null )
+        visited.add( root.getPomFile().getAbsoluteFile().toPath().normalize() );
+
+    Set<Path> level = roots.stream()
+        .flatMap( ArtifactDefProvider::getLinkedPoms )
+        .filter( visited::add )
+        .collect( toSet() );
+
+    while( !level.isEmpty() ) {
+
+      Set<Path> next = level.parallelStream().flatMap( pom -> {
+        Model model = tryReadModel( pom );
+        if( model == null )
+          return Stream.empty();
+        preloaded.put( pom, model );
+        return getLinkedPoms( model );
+      } ).collect( toSet() );
+
+      next.removeIf( pom -> !visited.add( pom ) );
+      level = next;
+
+    }
+
+    logger.log( "Preloaded pom files: {}", preloaded.size() );
+
+  }
+
+  private Model readModel( Path pom ) {
+
+    Model model = preloaded.remove( pom.toAbsolutePath().normalize() );
+    if( model != null )
+      return model;
+
+    model = parsedModelCache.read( pom );
+    if( model != null )
+      return model;
+
+    try {
+      return modelReader.read( pom.toFile(), null );
+    } catch( IOException ex ) {
+      throw new IllegalStateException( "Can not load pom " + pom + ": " + ex.getMessage(), ex );
+    }
+
+  }
+
+  private ArtifactDef loadDef( Model model, Set<ArtifactId> force ) {
+
+    if( model.getPomFile() != null )
+      visitedPoms.add( model.getPomFile().toPath().toAbsolutePath().normalize() );
+
+    ArtifactId id = ArtifactId.from( model );
+
+    Optional<ArtifactDef> optionalDef = cache.peek( id );
+    if( optionalDef.isPresent() )
+      return optionalDef.get();
+
+    force.addAll( ArtifactId.fromString( model.getProperties().getProperty( ANALYZED_KEY, "" ) ) );
+
+    // get all modules
+    Set<String> modules = getModules( model );
+
     // Artifact definition
     ArtifactDef def = null;
 
@@ -314,13 +530,7 @@ public class ArtifactDefProvider {
   }
 
   private void loadDef( Path pom, Set<ArtifactId> force ) {
-
-    try {
-      loadDef( modelReader.read( pom.toFile(), null ), force );
-    } catch( IOException ex ) {
-      throw new IllegalStateException( "Can not load pom " + pom + ": " + ex.getMessage(), ex );
-    }
-
+    loadDef( readModel( pom ), force );
   }
 
 }
@@ -0,0 +1,294 @@
+package io.github.atos_digital_id.paprika.project;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+
+import io.github.atos_digital_id.paprika.GitHandler;
+import io.github.atos_digital_id.paprika.PaprikaBuildInfo;
+import io.github.atos_digital_id.paprika.utils.log.PaprikaLogger;
+import lombok.Data;
+import lombok.NonNull;
+
+/**
+ * Persistent storage of the discovered modules, in the Git directory. A stored
+ * graph is associated with the pom file starting the discovery, and records
+ * the blob ids of all the pom files read during the discovery. The stored
+ * graph is valid as long as none of these pom files changed.
+ **/
+@Named
+@Singleton
+public class ArtifactDefStore {
+
+  private static final String HEADER = "paprika-defs 1";
+
+  @Inject
+  private PaprikaLogger logger;
+
+  @Inject
+  private GitHandler gitHandler;
+
+  @Inject
+  private PaprikaBuildInfo paprikaBuildInfo;
+
+  /**
+   * Stored module definition.
+   **/
+  @Data
+  public static class StoredDef {
+
+    /**
+     * Id of the module.
+     *
+     * @return the id of the module.
+     **/
+    private final ArtifactId id;
+
+    /**
+     * Packaging of the module.
+     *
+     * @return the packaging.
+     **/
+    private final String packaging;
+
+    /**
+     * Parent id of the module.
+     *
+     * @return the parent id.
+     **/
+    private final ArtifactId parentId;
+
+    /**
+     * Absolute path of the pom file.
+     *
+     * @return the path of the pom file.
+     **/
+    private final Path pom;
+
+    /**
+     * Direct dependency ids.
+     *
+     * @return the direct dependency ids.
+     **/
+    private final Set<ArtifactId> dependencyIds = new TreeSet<>();
+
+    /**
+     * All module names.
+     *
+     * @return module names.
+     **/
+    private final Set<String> modules = new LinkedHashSet<>();
+
+  }
+
+  private Path storePath( Path entry ) {
+
+    String name = new ObjectInserter.Formatter()
+        .idFor( Constants.OBJ_BLOB, relativize( entry ).getBytes( UTF_8 ) )
+        .name();
+
+    return gitHandler.repository().getDirectory().toPath().resolve( "paprika" ).resolve( name );
+
+  }
+
+  // separated by '/' on every platform, so the stored graph can be shared
+  private String relativize( Path path ) {
+    return gitHandler.relativize( path );
+  }
+
+  private Path resolve( String path ) {
+    return gitHandler.resolve( path );
+  }
+
+  private static ObjectId blobId( Path path ) throws IOException {
+    return new ObjectInserter.Formatter().idFor( Constants.OBJ_BLOB, Files.readAllBytes( path ) );
+  }
+
+  private static ArtifactId parseId( String value ) {
+
+    if( "-".equals( value ) )
+      return null;
+
+    int sep = value.indexOf( ':' );
+    return new ArtifactId( value.substring( 0, sep ), value.substring( sep + 1 ) );
+
+  }
+
+  private static String formatId( ArtifactId id ) {
+    return id == null ? "-" : id.getGroupId() + ":" + id.getArtifactId();
+  }
+
+  private List<StoredDef> invalid( Path store, String line ) {
+    logger.log( "Invalid stored modules {}: no module defined before '{}'", store, line );
+    return null;
+  }
+
+  /**
+   * Loads the modules discovered from a pom file.
+   *
+   * @param entry the pom file starting the discovery.
+   * @return the stored modules, or {@code null} if no valid graph is stored.
+   **/
+  public List<StoredDef> load( @NonNull Path entry ) {
+
+    Path store = storePath( entry );
+
+    List<StoredDef> defs = new ArrayList<>();
+    try( BufferedReader reader = Files.newBufferedReader( store, UTF_8 ) ) {
+
+      if( !HEADER.equals( reader.readLine() ) )
+        return null;
+      if( !( "plugin " + paprikaBuildInfo.getVersion() ).equals( reader.readLine() ) )
+        return null;
+      if( !( "entry " + relativize( entry ) ).equals( reader.readLine() ) )
+        return null;
+
+      StoredDef def = null;
+      String line;
+      while( ( line = reader.readLine() ) != null ) {
+
+        String[] parts = line.split( " ", 2 );
+        switch( parts[0] ) {
+
+          case "pom":
+            String[] pom = parts[1].split( " ", 2 );
+            Path path = resolve( pom[1] );
+            if( !Files.isRegularFile( path ) || !blobId( path ).name().equals( pom[0] ) ) {
+              logger.log( "Stored modules outdated by {}", path );
+              return null;
+            }
+            break;
+
+          case "def":
+            String[] fields = parts[1].split( " ", 4 );
+            def = new StoredDef(
+                parseId( fields[0] ),
+                fields[1],
+                parseId( fields[2] ),
+                resolve( fields[3] ) );
+            defs.add( def );
+            break;
+
+          case "dep":
+            if( def == null )
+              return invalid( store, line );
+            def.getDependencyIds().add( parseId( parts[1] ) );
+            break;
+
+          case "module":
+            if( def == null )
+              return invalid( store, line );
+            def.getModules().add( parts[1] );
+            break;
+
+          default:
+            return null;
+
+        }
+
+      }
+
+    } catch( NoSuchFileException ex ) {
+      return null;
+    } catch( IOException | RuntimeException ex ) {
+      logger.log( "Can not read stored modules {}: {}", store, ex );
+      return null;
+    }
+
+    logger.log( "Loaded {} stored modules from {}", defs.size(), store );
+
+    return defs;
+
+  }
+
+  /**
+   * Saves the modules discovered from a pom file.
+   *
+   * @param entry the pom file starting the discovery.
+   * @param poms all the pom files read during the discovery.
+   * @param defs the discovered modules.
+   **/
+  public void save(
+      @NonNull Path entry,
+      @NonNull Collection<Path> poms,
+      @NonNull Collection<ArtifactDef> defs ) {
+
+    Path store = storePath( entry );
+
+    try {
+
+      Files.createDirectories( store.getParent() );
+      Path tmp = Files.createTempFile( store.getParent(), store.getFileName().toString(), ".tmp" );
+
+      try( BufferedWriter writer = Files.newBufferedWriter( tmp, UTF_8 ) ) {
+
+        writer.write( HEADER );
+        writer.newLine();
+        writer.write( "plugin " + paprikaBuildInfo.getVersion() );
+        writer.newLine();
+        writer.write( "entry " + relativize( entry ) );
+        writer.newLine();
+
+        for( Path pom : poms ) {
+          writer.write( "pom " + blobId( pom ).name() + " " + relativize( pom ) );
+          writer.newLine();
+        }
+
+        for( ArtifactDef def : defs ) {
+
+          writer.write( "def " + formatId( def ) + " " + def.getPackaging() + " "
+              + formatId( def.getParentId() ) + " " + relativize( def.getPom() ) );
+          writer.newLine();
+
+          for( ArtifactId dep : def.getDependencyIds() ) {
+            writer.write( "dep " + formatId( dep ) );
+            writer.newLine();
+          }
+
+          for( String module : def.getModules() ) {
+            writer.write( "module " + module );
+            writer.newLine();
+          }
+
+        }
+
+      }
+
+      try {
+        Files.move(
+            tmp,
+            store,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE );
+      } finally {
+        Files.deleteIfExists( tmp );
+      }
+      logger.log( "Saved {} modules in {}", defs.size(), store );
+
+    } catch( IOException ex ) {
+      logger.log( "Can not save modules in {}: {}", store, ex );
+    }
+
+  }
+
+}
@@ -0,0 +1,215 @@
+package io.github.atos_digital_id.paprika.project;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import lombok.NonNull;
+
+/**
+ * Dependency graph of a set of modules. Each module has a dense index, in
+ * topological order (dependencies and parents before dependents, as long as
+ * there is no cycle). The transitive closures of the modules (their
+ * dependencies recursively, and their parent chains) are computed once as
+ * bitsets of indices.
+ **/
+public class ArtifactGraph {
+
+  private final List<ArtifactDef> defs = new ArrayList<>();
+
+  private final Map<ArtifactDef, Integer> indices = new HashMap<>();
+
+  private final BitSet[] closures;
+
+  /**
+   * Constructor.
+   *
+   * @param allDefs all the modules of the graph, with all their dependencies
+   *        and parents.
+   **/
+  public ArtifactGraph( @NonNull Collection<? extends ArtifactDef> allDefs ) {
+
+    for( ArtifactDef def : new TreeSet<>( allDefs ) )
+      visit( def );
+
+    int size = defs.size();
+    closures = new BitSet[size];
+
+    // direct dependencies and parent chains
+    int[][] directs = new int[size][];
+    for( int i = 0; i < size; i++ ) {
+
+      ArtifactDef def = defs.get( i );
+      BitSet closure = new BitSet( size );
+
+      SortedSet<ArtifactDef> dependencies = def.getDependencies();
+      directs[i] = new int[dependencies.size()];
+      int d = 0;
+      for( ArtifactDef dependency : dependencies ) {
+        int index = indices.get( dependency );
+        directs[i][d++] = index;
+        closure.set( index );
+      }
+
+      Optional<ArtifactDef> parent = def.getParent();
+      while( parent.isPresent() ) {
+        int index = indices.get( parent.get() );
+        if( closure.get( index ) )
+          break;
+        closure.set( index );
+        parent = parent.get().getParent();
+      }
+
+      closures[i] = closure;
+
+    }
+
+    // dependencies recursively, until stable in case of cycles
+    boolean changed = true;
+    while( changed ) {
+      changed = false;
+      for( int i = 0; i < size; i++ ) {
+        BitSet closure = closures[i];
+        int cardinality = closure.cardinality();
+        for( int dependency : directs[i] )
+          closure.or( closures[dependency] );
+        if( closure.cardinality() != cardinality )
+          changed = true;
+      }
+    }
+
+  }
+
+  private static List<ArtifactDef> successors( ArtifactDef def ) {
+    List<ArtifactDef> successors = new ArrayList<>( def.getDependencies() );
+    def.getParent().ifPresent( successors::add );
+    return successors;
+  }
+
+  private void visit( ArtifactDef root ) {
+
+    if( indices.containsKey( root ) )
+      return;
+
+    // iterative depth first search, indexing in post-order
+    Set<ArtifactDef> visiting = new HashSet<>();
+    Deque<ArtifactDef> nodes = new ArrayDeque<>();
+    Deque<Iterator<ArtifactDef>> iterators = new ArrayDeque<>();
+
+    visiting.add( root );
+    nodes.push( root );
+    iterators.push( successors( root ).iterator() );
+
+    while( !nodes.isEmpty() ) {
+
+      Iterator<ArtifactDef> iterator = iterators.peek();
+      if( iterator.hasNext() ) {
+
+        ArtifactDef next = iterator.next();
+        if( !indices.containsKey( next ) && visiting.add( next ) ) {
+          nodes.push( next );
+          iterators.push( successors( next ).iterator() );
+        }
+
+      } else {
+
+        ArtifactDef def = nodes.pop();
+        iterators.pop();
+        indices.put( def, defs.size() );
+        defs.add( def );
+
+      }
+
+    }
+
+  }
+
+  /**
+   * Number of modules in the graph.
+   *
+   * @return the number of modules.
+   **/
+  public int size() {
+    return defs.size();
+  }
+
+  /**
+   * Returns the index of a module.
+   *
+   * @param def the module.
+   * @return the index of the module.
+   **/
+  public int indexOf( @NonNull ArtifactDef def ) {
+
+    Integer index = indices.get( def );
+    if( index == null )
+      throw new IllegalArgumentException( "The artifact " + def + " is not in the graph." );
+
+    return index;
+
+  }
+
+  /**
+   * Returns the module of an index.
+   *
+   * @param index the index.
+   * @return the module.
+   **/
+  public ArtifactDef get( int index ) {
+    return defs.get( index );
+  }
+
+  /**
+   * Returns the transitive closure of a module.
+   *
+   * @param def the module.
+   * @return a copy of the closure bitset.
+   **/
+  public BitSet getClosure( @NonNull ArtifactDef def ) {
+    return (BitSet) closures[indexOf( def )].clone();
+  }
+
+  /**
+   * Returns the union of the transitive closures of several modules.
+   *
+   * @param coll the modules.
+   * @return the union bitset.
+   **/
+  public BitSet getClosure( @NonNull Collection<? extends ArtifactDef> coll ) {
+
+    BitSet union = new BitSet( defs.size() );
+    for( ArtifactDef def : coll )
+      union.or( closures[indexOf( def )] );
+
+    return union;
+
+  }
+
+  /**
+   * Converts a bitset of indices in modules.
+   *
+   * @param bitSet the bitset to convert.
+   * @return the modules.
+   **/
+  public SortedSet<ArtifactDef> toDefs( @NonNull BitSet bitSet ) {
+
+    SortedSet<ArtifactDef> result = new TreeSet<>();
+    for( int i = bitSet.nextSetBit( 0 ); i >= 0; i = bitSet.nextSetBit( i + 1 ) )
+      result.add( defs.get( i ) );
+
+    return result;
+
+  }
+
+}
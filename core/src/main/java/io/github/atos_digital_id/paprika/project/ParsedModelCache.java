@@ -0,0 +1,150 @@
+package io.github.atos_digital_id.paprika.project;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.maven.model.InputSource;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.io.ModelReader;
+
+import io.github.atos_digital_id.paprika.GitHandler;
+import lombok.Data;
+import lombok.NonNull;
+
+/**
+ * Session cache of the parsed pom files of the Git repository. Each pom file
+ * is parsed once (strictly, with location tracking), as long as its size and
+ * its modification date don't change, and as long as the memory allows it: the
+ * parsed models are softly referenced. A clone of the parsed model is returned
+ * on each read, so the callers can modify it.
+ **/
+@Named
+@Singleton
+public class ParsedModelCache {
+
+  @Inject
+  private GitHandler gitHandler;
+
+  @Inject
+  private ModelReader modelReader;
+
+  @Data
+  private static class Entry {
+
+    private final long size;
+
+    private final long lastModified;
+
+    private final SoftReference<Model> model;
+
+  }
+
+  private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Returns a copy of the parsed model of a pom file.
+   *
+   * @param pom the path of the pom file.
+   * @return a copy of the model, or {@code null} if no Git repository is
+   *         loaded, if the pom file is outside of the Git repository or if it
+   *         can not be strictly parsed.
+   **/
+  public Model read( @NonNull Path pom ) {
+
+    if( !gitHandler.isLoaded() )
+      return null;
+
+    Path path = pom.toAbsolutePath().normalize();
+    if( !path.startsWith( gitHandler.gitRoot() ) )
+      return null;
+
+    BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes( path, BasicFileAttributes.class );
+    } catch( IOException ex ) {
+      return null;
+    }
+
+    long size = attributes.size();
+    long lastModified = attributes.lastModifiedTime().toMillis();
+
+    Entry entry = entries.get( path );
+    Model model = entry == null ? null : entry.getModel().get();
+    if( model == null || entry.getSize() != size || entry.getLastModified() != lastModified ) {
+
+      model = parse( path );
+      if( model == null )
+        return null;
+
+      entries.put( path, new Entry( size, lastModified, new SoftReference<>( model ) ) );
+
+    }
+
+    return model.clone();
+
+  }
+
+  private Model parse( Path path ) {
+
+    InputSource source = new InputSource();
+    source.setLocation( path.toString() );
+
+    Map<String, Object> options = new HashMap<>();
+    options.put( ModelReader.IS_STRICT, Boolean.TRUE );
+    options.put( ModelReader.INPUT_SOURCE, source );
+
+    Model model;
+    try {
+      model = modelReader.read( path.toFile(), options );
+    } catch( IOException ex ) {
+      // the caller falls back on its own read, reporting the error
+      return null;
+    }
+
+    source.setModelId( toId( model ) );
+
+    return model;
+
+  }
+
+  private static String toId( Model model ) {
+
+    Parent parent = model.getParent();
+
+    String groupId = model.getGroupId();
+    if( groupId == null && parent != null )
+      groupId = parent.getGroupId();
+
+    String artifactId = model.getArtifactId();
+
+    String version = model.getVersion();
+    if( version == null && parent != null )
+      version = parent.getVersion();
+
+    return ( groupId == null ? "[unknown-group-id]" : groupId )
+        + ":"
+        + ( artifactId == null ? "[unknown-artifact-id]" : artifactId )
+        + ":"
+        + ( version == null ? "[unknown-version]" : version );
+
+  }
+
+  /**
+   * Clears the cache.
+   **/
+  public void clear() {
+    entries.clear();
+  }
+
+}
@@ -0,0 +1,102 @@
+package io.github.atos_digital_id.paprika.project;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import lombok.NonNull;
+
+/**
+ * Modules whose properties {@code paprika.<artifactId>.*} are defined in the
+ * model of a module: the module itself, its dependencies and its parents
+ * (recursively), and the modules referenced as
+ * {@code ${paprika.<artifactId>...}} in the pom files of the module and of its
+ * parents. The other modules are not examined.
+ **/
+public class PropertiesScope {
+
+  private PropertiesScope() {}
+
+  private static final Pattern REFERENCE = Pattern.compile( "\\$\\{paprika\\.([^}\\s]+)\\}" );
+
+  /**
+   * Finds the references {@code ${paprika.<name>}} of a text.
+   *
+   * @param content the text to scan, usually a pom file.
+   * @return the referenced names, after the {@code paprika.} prefix.
+   **/
+  public static Set<String> findReferences( @NonNull CharSequence content ) {
+
+    Set<String> references = new HashSet<>();
+    Matcher matcher = REFERENCE.matcher( content );
+    while( matcher.find() )
+      references.add( matcher.group( 1 ) );
+
+    return references;
+
+  }
+
+  /**
+   * Test if a module is referenced, by its version or by one of its
+   * properties.
+   *
+   * @param artifactId the artifact id of the module.
+   * @param references the references, after the {@code paprika.} prefix.
+   * @return true if one of the references is a property of the module.
+   **/
+  public static boolean isReferenced(
+      @NonNull String artifactId,
+      @NonNull Set<String> references ) {
+
+    for( String reference : references )
+      if( reference.equals( artifactId )
+          || reference.startsWith( artifactId ) && reference.charAt( artifactId.length() ) == '.' )
+        return true;
+
+    return false;
+
+  }
+
+  /**
+   * Computes the modules whose properties are defined in the model of a
+   * module.
+   *
+   * @param def the module.
+   * @param allDefs all the known modules, which may be referenced.
+   * @param references the references of the pom file of a module, only called
+   *        for the module and its parents.
+   * @return the modules of the scope, including the module itself.
+   **/
+  public static SortedSet<ArtifactDef> getScope(
+      @NonNull ArtifactDef def,
+      @NonNull Collection<? extends ArtifactDef> allDefs,
+      @NonNull Function<ArtifactDef, Set<String>> references ) {
+
+    SortedSet<ArtifactDef> scope = new TreeSet<>( def.getAllDependencies() );
+    scope.add( def );
+
+    // pom files of the module and of its parents, once each
+    Set<String> refs = new HashSet<>();
+    Set<ArtifactDef> poms = new HashSet<>();
+    Optional<ArtifactDef> current = Optional.of( def );
+    while( current.isPresent() && poms.add( current.get() ) ) {
+      refs.addAll( references.apply( current.get() ) );
+      current = current.get().getParent();
+    }
+
+    if( !refs.isEmpty() )
+      for( ArtifactDef d : allDefs )
+        if( isReferenced( d.getArtifactId(), refs ) )
+          scope.add( d );
+
+    return scope;
+
+  }
+
+}
@@ -1,9 +1,17 @@
 package io.github.atos_digital_id.paprika.utils;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+
+import lombok.RequiredArgsConstructor;
 
 /**
  * Patterns and wildcards utilities.
@@ -44,79 +52,285 @@ public class Patterns {
   }
 
   /**
-   * Build a Pattern with a quote/unquoted characters support.
+   * Result of test of a path pattern test.
    **/
-  private static class PatternBuilder {
-
-    private final StringBuilder builder = new StringBuilder( "\\A" );
+  public enum PathFilterResult {
 
-    private boolean quoted = false;
+    /**
+     * Don't match.
+     **/
+    NO_MATCH,
 
-    public void addQuoted( char c ) {
-      if( !quoted ) {
-        builder.append( "\\Q" );
-        quoted = true;
-      }
-      builder.append( c );
-    }
+    /**
+     * Match.
+     **/
+    MATCH,
 
-    public void addUnquoted( String str ) {
-      if( quoted ) {
-        builder.append( "\\E" );
-        quoted = false;
-      }
-      builder.append( str );
-    }
+    /**
+     * Match and all sub tree also match.
+     **/
+    TREE_MATCH;
 
-    public Pattern build() {
+  }
 
-      StringBuilder b = new StringBuilder( builder.toString() );
-      if( quoted )
-        b.append( "\\E" );
-      b.append( "\\Z" );
+  private static BitSet byteClass( int from, int to, char ... excluded ) {
 
-      return Pattern.compile( b.toString() );
+    BitSet bitSet = new BitSet( 256 );
+    bitSet.set( from, to + 1 );
+    for( char c : excluded )
+      bitSet.clear( c );
 
-    }
+    return bitSet;
 
   }
 
+  // any byte but a separator
+  private static final BitSet NON_SEPARATOR = byteClass( 0x00, 0xff, '/' );
+
+  // any byte but a line terminator
+  private static final BitSet NON_TERMINATOR = byteClass( 0x00, 0xff, '\n', '\r' );
+
+  // single byte char, but a line terminator
+  private static final BitSet UTF8_SINGLE = byteClass( 0x00, 0x7f, '\n', '\r' );
+
+  // first bytes of 2, 3 and 4 bytes chars
+  private static final BitSet UTF8_LEAD_2 = byteClass( 0xc0, 0xdf );
+
+  private static final BitSet UTF8_LEAD_3 = byteClass( 0xe0, 0xef );
+
+  private static final BitSet UTF8_LEAD_4 = byteClass( 0xf0, 0xf7 );
+
+  // continuation bytes of multi-bytes chars
+  private static final BitSet UTF8_CONTINUATION = byteClass( 0x80, 0xbf );
+
   /**
-   * Result of test of a path pattern test.
+   * Non deterministic automaton on bytes, with epsilon transitions.
    **/
-  public enum PathFilterResult {
+  private static class Nfa {
+
+    private final List<List<BitSet>> classes = new ArrayList<>();
+
+    private final List<List<Integer>> targets = new ArrayList<>();
+
+    private final List<List<Integer>> epsilons = new ArrayList<>();
+
+    private final List<Integer> partials = new ArrayList<>();
+
+    private int last = node();
+
+    private int node() {
+      classes.add( new ArrayList<>() );
+      targets.add( new ArrayList<>() );
+      epsilons.add( new ArrayList<>() );
+      return classes.size() - 1;
+    }
+
+    private void edge( int from, BitSet byteClass, int to ) {
+      classes.get( from ).add( byteClass );
+      targets.get( from ).add( to );
+    }
+
+    private void single( BitSet byteClass ) {
+      int next = node();
+      edge( last, byteClass, next );
+      last = next;
+    }
+
+    private void repeat( BitSet byteClass ) {
+      int next = node();
+      edge( last, byteClass, last );
+      epsilons.get( last ).add( next );
+      last = next;
+    }
 
     /**
-     * Don't match.
+     * Adds a code point, as its UTF-8 bytes.
      **/
-    NO_MATCH,
+    public void literal( int codePoint ) {
+      byte[] bytes = new String( Character.toChars( codePoint ) ).getBytes( UTF_8 );
+      for( byte b : bytes )
+        single( byteClass( b & 0xff, b & 0xff ) );
+    }
 
     /**
-     * Match.
+     * Adds any char but a line terminator.
      **/
-    MATCH,
+    public void any() {
+
+      int next = node();
+      int cont1 = node();
+      int cont2 = node();
+      int cont3 = node();
+
+      edge( last, UTF8_SINGLE, next );
+      edge( last, UTF8_LEAD_2, cont1 );
+      edge( last, UTF8_LEAD_3, cont2 );
+      edge( last, UTF8_LEAD_4, cont3 );
+      edge( cont3, UTF8_CONTINUATION, cont2 );
+      edge( cont2, UTF8_CONTINUATION, cont1 );
+      edge( cont1, UTF8_CONTINUATION, next );
+
+      last = next;
+
+    }
 
     /**
-     * Match and all sub tree also match.
+     * Adds any sequence of chars without separator.
      **/
-    TREE_MATCH;
+    public void wildcard() {
+      repeat( NON_SEPARATOR );
+    }
+
+    /**
+     * Adds any sequence of chars without line terminator.
+     **/
+    public void doubleWildcard() {
+      repeat( NON_TERMINATOR );
+    }
+
+    /**
+     * Marks the current state as the end of the next partial pattern.
+     **/
+    public void partial() {
+      partials.add( last );
+    }
+
+    private void close( BitSet set ) {
+
+      Deque<Integer> stack = new ArrayDeque<>();
+      set.stream().forEach( stack::push );
+
+      while( !stack.isEmpty() )
+        for( int next : epsilons.get( stack.pop() ) )
+          if( !set.get( next ) ) {
+            set.set( next );
+            stack.push( next );
+          }
+
+    }
+
+    /**
+     * Builds the equivalent deterministic automaton (subset construction).
+     *
+     * @return the deterministic automaton.
+     **/
+    public Dfa determinize() {
+
+      Map<BitSet, Integer> ids = new HashMap<>();
+      List<BitSet> sets = new ArrayList<>();
+
+      BitSet start = new BitSet();
+      start.set( 0 );
+      close( start );
+      ids.put( start, 0 );
+      sets.add( start );
+
+      List<int[]> transitions = new ArrayList<>();
+
+      for( int s = 0; s < sets.size(); s++ ) {
+
+        BitSet set = sets.get( s );
+        int[] transition = new int[256];
+
+        for( int b = 0; b < 256; b++ ) {
+
+          BitSet next = new BitSet();
+          for( int n = set.nextSetBit( 0 ); n >= 0; n = set.nextSetBit( n + 1 ) ) {
+            List<BitSet> nodeClasses = classes.get( n );
+            for( int e = 0; e < nodeClasses.size(); e++ )
+              if( nodeClasses.get( e ).get( b ) )
+                next.set( targets.get( n ).get( e ) );
+          }
+
+          if( next.isEmpty() ) {
+            transition[b] = Dfa.DEAD;
+          } else {
+            close( next );
+            Integer id = ids.get( next );
+            if( id == null ) {
+              id = sets.size();
+              ids.put( next, id );
+              sets.add( next );
+            }
+            transition[b] = id;
+          }
+
+        }
+
+        transitions.add( transition );
+
+      }
+
+      int size = sets.size();
+      boolean[] accepting = new boolean[size];
+      BitSet[] partialAccepting = new BitSet[size];
+      for( int s = 0; s < size; s++ ) {
+        BitSet set = sets.get( s );
+        accepting[s] = set.get( last );
+        partialAccepting[s] = new BitSet();
+        for( int p = 0; p < partials.size(); p++ )
+          if( set.get( partials.get( p ) ) )
+            partialAccepting[s].set( p );
+      }
+
+      return new Dfa(
+          transitions.toArray( new int[size][] ),
+          accepting,
+          partialAccepting,
+          partials.size() );
+
+    }
 
   }
 
   /**
-   * Single tree filter (no support of ':' nor '!').
+   * Deterministic automaton on bytes. Each state knows if it accepts the
+   * complete pattern, and which partial patterns it accepts.
    **/
-  private static class SimpleFilter {
+  @RequiredArgsConstructor
+  private static class Dfa {
+
+    private static final int DEAD = -1;
+
+    private final int[][] transitions;
+
+    private final boolean[] accepting;
 
-    private final Pattern completePattern;
+    private final BitSet[] partialAccepting;
 
-    private final List<Pattern> partialPatterns = new ArrayList<>();
+    private final int partialCount;
+
+    public int run( byte[] path, int off, int len ) {
+
+      int state = 0;
+      for( int i = off; i < off + len; i++ ) {
+        state = transitions[state][path[i] & 0xff];
+        if( state == DEAD )
+          return DEAD;
+      }
+
+      return state;
+
+    }
+
+  }
+
+  /**
+   * Single tree filter (no support of ':' nor '!'). The wildcard expression is
+   * compiled in an automaton running on the UTF-8 bytes of the paths: a
+   * {@code ?} matches any char but a line terminator, a {@code *} matches any
+   * sequence without {@code /}, and a {@code **} matches any sequence without
+   * line terminator.
+   **/
+  private static class SimpleFilter {
+
+    private final Dfa dfa;
 
     private boolean useDoubleWildcard = false;
 
     public SimpleFilter( String exp ) {
 
-      PatternBuilder builder = new PatternBuilder();
+      Nfa nfa = new Nfa();
 
       int len = exp.length();
       boolean partialConstruct = true;
@@ -126,77 +340,80 @@ public class Patterns {
         char c = exp.charAt( i );
 
         if( c == '\\' && i < len - 1 ) {
-          builder.addQuoted( exp.charAt( ++i ) );
+          int codePoint = exp.codePointAt( ++i );
+          nfa.literal( codePoint );
+          i += Character.charCount( codePoint ) - 1;
         } else if( partialConstruct && c == '/' ) {
-          partialPatterns.add( builder.build() );
-          builder.addQuoted( c );
+          nfa.partial();
+          nfa.literal( c );
         } else if( c == '?' ) {
-          builder.addUnquoted( "." );
+          nfa.any();
         } else if( c == '*' ) {
           if( i < len - 1 && exp.charAt( i + 1 ) == '*' ) {
-            builder.addUnquoted( ".*" );
+            nfa.doubleWildcard();
             ++i;
             partialConstruct = false;
             useDoubleWildcard = true;
           } else {
-            builder.addUnquoted( "[^/]*" );
+            nfa.wildcard();
           }
         } else {
-          builder.addQuoted( c );
+          int codePoint = exp.codePointAt( i );
+          nfa.literal( codePoint );
+          i += Character.charCount( codePoint ) - 1;
         }
 
       }
 
-      completePattern = builder.build();
+      this.dfa = nfa.determinize();
 
     }
 
-    private boolean test( Pattern pattern, String str ) {
-      return pattern.matcher( str ).matches();
-    }
-
-    private boolean test( int idx, String str ) {
-      return test( partialPatterns.get( idx ), str );
-    }
-
     /**
      * Test if the given path match the pattern.
      *
-     * @param path the path to test.
-     * @return true if the string match the pattern.
+     * @param path the UTF-8 bytes of the path to test.
+     * @param off the offset of the path in the array.
+     * @param len the length of the path.
+     * @return true if the path match the pattern.
      **/
-    public boolean complete( String path ) {
-      return test( completePattern, path );
+    public boolean complete( byte[] path, int off, int len ) {
+      int state = dfa.run( path, off, len );
+      return state != Dfa.DEAD && dfa.accepting[state];
     }
 
     /**
-     * Test if the given string match partialy the pattern. In case of
+     * Test if the given path match partialy the pattern. In case of
      * {@code PathFilterResult.TREE_MATCH}, a complete test at the end is
      * necessary with the path of a regular file.
      *
-     * @param path the path to test.
+     * @param path the UTF-8 bytes of the path to test.
+     * @param off the offset of the path in the array.
+     * @param len the length of the path.
+     * @param depth the number of {@code /} in the path.
      * @return the match result.
      **/
-    public PathFilterResult partial( int depth, String path ) {
+    public PathFilterResult partial( byte[] path, int off, int len, int depth ) {
 
-      int maxi = partialPatterns.size() - 1;
+      int maxi = dfa.partialCount - 1;
 
+      int i;
       if( useDoubleWildcard ) {
-
-        int i = Math.min( depth, maxi );
-
-        return test( i, path )
-            ? ( i == maxi ? PathFilterResult.TREE_MATCH : PathFilterResult.MATCH )
-            : PathFilterResult.NO_MATCH;
-
+        // no separator before the double wildcard
+        if( maxi < 0 )
+          return PathFilterResult.MATCH;
+        i = Math.min( depth, maxi );
       } else {
-
         if( depth > maxi )
           return PathFilterResult.NO_MATCH;
+        i = depth;
+      }
 
-        return test( depth, path ) ? PathFilterResult.MATCH : PathFilterResult.NO_MATCH;
+      int state = dfa.run( path, off, len );
+      if( state == Dfa.DEAD || !dfa.partialAccepting[state].get( i ) )
+        return PathFilterResult.NO_MATCH;
 
-      }
+      return useDoubleWildcard && i == maxi ? PathFilterResult.TREE_MATCH : PathFilterResult.MATCH;
 
     }
 
@@ -247,13 +464,26 @@ public class Patterns {
      * @return true if the string match the pattern.
      **/
     public boolean complete( String path ) {
+      byte[] bytes = path.getBytes( UTF_8 );
+      return complete( bytes, 0, bytes.length );
+    }
+
+    /**
+     * Test if the given path match any pattern, and is not ignored.
+     *
+     * @param path the UTF-8 bytes of the path to test.
+     * @param off the offset of the path in the array.
+     * @param len the length of the path.
+     * @return true if the path match the pattern.
+     **/
+    public boolean complete( byte[] path, int off, int len ) {
 
       for( SimpleFilter filter : excludes )
-        if( filter.complete( path ) )
+        if( filter.complete( path, off, len ) )
           return false;
 
       for( SimpleFilter filter : includes )
-        if( filter.complete( path ) )
+        if( filter.complete( path, off, len ) )
           return true;
 
       return false;
@@ -277,8 +507,26 @@ public class Patterns {
           depth += 1;
       }
 
+      byte[] bytes = path.getBytes( UTF_8 );
+      return partial( bytes, 0, bytes.length, depth );
+
+    }
+
+    /**
+     * Test if the given path match partialy a pattern. In case of
+     * {@code PathFilterResult.TREE_MATCH}, a complete test at the end is
+     * necessary with the path of a regular file.
+     *
+     * @param path the UTF-8 bytes of the path to test.
+     * @param off the offset of the path in the array.
+     * @param len the length of the path.
+     * @param depth the number of {@code /} in the path.
+     * @return the match result.
+     **/
+    public PathFilterResult partial( byte[] path, int off, int len, int depth ) {
+
       for( SimpleFilter filter : includes ) {
-        PathFilterResult res = filter.partial( depth, path );
+        PathFilterResult res = filter.partial( path, off, len, depth );
         if( res == PathFilterResult.MATCH || res == PathFilterResult.TREE_MATCH )
           return res;
       }
@@ -292,12 +540,12 @@ public class Patterns {
   private static final PathFilter NULL_PATH_FILTER = new PathFilter( "" ) {
 
     @Override
-    public boolean complete( String path ) {
+    public boolean complete( byte[] path, int off, int len ) {
       return false;
     }
 
     @Override
-    public PathFilterResult partial( String path ) {
+    public PathFilterResult partial( byte[] path, int off, int len, int depth ) {
       return PathFilterResult.NO_MATCH;
     }
 
@@ -306,6 +554,8 @@ public class Patterns {
   /**
    * Parse a wildcard pattern and return a predicate based on it. The predicate
    * returns true if the tested value is matched by the wildcard expression.
+   * The compiled filters are immutable, and can be shared by all the identical
+   * expressions.
    *
    * @param exp the wildcard expression.
    * @return a predicate based on the wildcard expression.
@@ -1,92 +1,118 @@
 package io.github.atos_digital_id.paprika.utils.templating.engine;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
+import java.lang.invoke.MethodHandle;
+import java.util.Collections;
 import java.util.Map;
 
 import io.github.atos_digital_id.paprika.utils.templating.engine.api.CustomMap;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 
-@RequiredArgsConstructor
 public class Context {
 
-  private static class KeyNotFound extends Exception {}
+  // returned by the lookups of missing keys, instead of throwing
+  static final Object NOT_FOUND = new Object();
 
   public final Context parent;
 
-  private final Object root;
+  // moved by the iteration frames
+  Object root;
 
   private final Map<String, Object> additionals;
 
-  public Object fetch( @NonNull String key ) {
-
-    if( ".".equals( key ) )
-      return root;
+  public Context( Context parent, Object root, @NonNull Map<String, Object> additionals ) {
+    this.parent = parent;
+    this.root = root;
+    this.additionals = additionals;
+  }
 
-    return fetch( Arrays.asList( key.split( "\\." ) ) );
+  /**
+   * Splits a key in its path. An empty path designates the current object.
+   *
+   * @param key the key, like {@code a.b.c} or {@code .}.
+   * @return the path of the key.
+   */
+  public static String[] splitKey( @NonNull String key ) {
+    return key.split( "\\." );
+  }
 
+  public Object fetch( @NonNull String key ) {
+    return fetch( splitKey( key ) );
   }
 
-  private Object fetch( List<String> keys ) {
+  /**
+   * Fetches a value from a key path. The first key is searched in this
+   * context, then in the parent contexts. The next keys are searched in the
+   * found value.
+   *
+   * @param keys the key path, as returned by {@link #splitKey(String)}.
+   * @return the value, or {@code null} if not found.
+   */
+  public Object fetch( @NonNull String[] keys ) {
+
+    if( keys.length == 0 )
+      return root;
+
+    String first = keys[0];
 
-    Object current = this.root;
+    Object current = NOT_FOUND;
+    Context context = this;
+    while( current == NOT_FOUND ) {
 
-    Iterator<String> ite = keys.iterator();
+      current = fetch( context.root, first );
 
-    if( ite.hasNext() ) {
-      String key = ite.next();
-      try {
-        current = fetch( current, key );
-      } catch( KeyNotFound ex ) {
-        if( additionals.containsKey( key ) )
-          current = additionals.get( key );
-        else if( parent != null ) {
-          return parent.fetch( keys );
-        } else
-          return null;
+      if( current == NOT_FOUND ) {
+        current = context.additional( first );
+        if( current == NOT_FOUND ) {
+          if( context.parent == null )
+            return null;
+          context = context.parent;
+        }
       }
+
     }
 
-    try {
-      while( ite.hasNext() ) {
-        current = fetch( current, ite.next() );
-      }
-    } catch( KeyNotFound ex ) {
-      return null;
+    for( int i = 1; i < keys.length; i++ ) {
+      current = fetch( current, keys[i] );
+      if( current == NOT_FOUND )
+        return null;
     }
 
     return current;
 
   }
 
-  private static Object fetch( Object obj, @NonNull String key ) throws KeyNotFound {
+  /**
+   * Returns an additional value of this context.
+   *
+   * @param key the key of the value.
+   * @return the value, or {@code NOT_FOUND} if not defined.
+   */
+  Object additional( String key ) {
 
-    if( obj == null )
-      throw new KeyNotFound();
-    if( key.isBlank() )
-      return obj;
+    Object additional = additionals.get( key );
+    if( additional != null || additionals.containsKey( key ) )
+      return additional;
 
-    try {
-      Method method = obj.getClass().getMethod( key );
-      return method.invoke( obj );
-    } catch( NoSuchMethodException | InvocationTargetException | IllegalAccessException ex ) {}
+    return NOT_FOUND;
 
-    String upper = Character.toUpperCase( key.charAt( 0 ) ) + key.substring( 1 );
+  }
 
-    try {
-      Method method = obj.getClass().getMethod( "get" + upper );
-      return method.invoke( obj );
-    } catch( NoSuchMethodException | InvocationTargetException | IllegalAccessException ex ) {}
+  private static Object fetch( Object obj, @NonNull String key ) {
 
-    try {
-      Method method = obj.getClass().getMethod( "is" + upper );
-      return method.invoke( obj );
-    } catch( NoSuchMethodException | InvocationTargetException | IllegalAccessException ex ) {}
+    if( obj == null )
+      return NOT_FOUND;
+    if( key.isBlank() )
+      return obj;
+
+    for( MethodHandle accessor : PropertyAccessors.get( obj.getClass(), key ) ) {
+      try {
+        return (Object) accessor.invokeExact( obj );
+      } catch( Error ex ) {
+        throw ex;
+      } catch( Throwable ex ) {
+        // try the next accessor, as a failing getter is not a value
+      }
+    }
 
     if( obj instanceof Map ) {
       Map<?, ?> casted = (Map<?, ?>) obj;
@@ -100,16 +126,42 @@ public class Context {
         return casted.get( key );
     }
 
-    throw new KeyNotFound();
+    return NOT_FOUND;
 
   }
 
   public Context sub( Object sub ) {
-    return new Context( this, sub, new HashMap<>() );
+    return new Context( this, sub, Collections.emptyMap() );
   }
 
   public Context sub( Object sub, Map<String, Object> additionals ) {
     return new Context( this, sub, additionals );
   }
 
+  public IterationFrame iterate( int size ) {
+    return new IterationFrame( this, size, false );
+  }
+
+  /**
+   * Creates an iteration frame rendered concurrently with other frames of the
+   * same list. Each rendering thread must use its own frame.
+   *
+   * @param size the size of the list.
+   * @return the iteration frame.
+   */
+  public IterationFrame iterateInParallel( int size ) {
+    return new IterationFrame( this, size, true );
+  }
+
+  /**
+   * Tests if this context is rendered concurrently with other items of a list.
+   * The lambdas, which may have side effects, can not be executed in such a
+   * context.
+   *
+   * @return true if rendered in parallel.
+   */
+  public boolean isParallel() {
+    return parent != null && parent.isParallel();
+  }
+
 }
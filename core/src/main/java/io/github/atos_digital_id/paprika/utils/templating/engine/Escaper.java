@@ -1,88 +1,116 @@
 package io.github.atos_digital_id.paprika.utils.templating.engine;
 
-import java.util.function.UnaryOperator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 public enum Escaper {
 
-  NONE( UnaryOperator.identity() ),
+  NONE( new String[0] ),
 
-  HTML( string -> {
+  HTML( htmlReplacements() ),
 
-    int len = string.length();
+  JSON( jsonReplacements() );
 
-    StringBuilder builder = new StringBuilder( len );
+  private static String[] htmlReplacements() {
 
-    for( int i = 0; i < len; i++ ) {
+    String[] replacements = new String[128];
+    replacements['&'] = "&amp;";
+    replacements['\''] = "&#39;";
+    replacements['"'] = "&quot;";
+    replacements['<'] = "&lt;";
+    replacements['>'] = "&gt;";
+    replacements['`'] = "&#x60;";
+    replacements['='] = "&#x3D;";
 
-      char c = string.charAt( i );
+    return replacements;
 
-      if( c == '&' )
-        builder.append( "&amp;" );
-      else if( c == '\'' )
-        builder.append( "&#39;" );
-      else if( c == '"' )
-        builder.append( "&quot;" );
-      else if( c == '<' )
-        builder.append( "&lt;" );
-      else if( c == '>' )
-        builder.append( "&gt;" );
-      else if( c == '`' )
-        builder.append( "&#x60;" );
-      else if( c == '=' )
-        builder.append( "&#x3D;" );
-      else
-        builder.append( c );
+  }
 
-    }
+  private static String[] jsonReplacements() {
 
-    return builder.toString();
+    String[] replacements = new String[128];
+    for( int c = 0; c < 0x0020; c++ )
+      replacements[c] = String.format( "\\u%04x", c );
+    replacements['\b'] = "\\b";
+    replacements['\f'] = "\\f";
+    replacements['\n'] = "\\n";
+    replacements['\r'] = "\\r";
+    replacements['\t'] = "\\t";
+    replacements['"'] = "\\\"";
+    replacements['\\'] = "\\\\";
+
+    return replacements;
 
-  } ),
+  }
 
-  JSON( string -> {
+  // replacement of the chars to escape, indexed by char
+  private final String[] replacements;
 
-    int len = string.length();
+  Escaper( String[] replacements ) {
+    this.replacements = replacements;
+  }
 
-    StringBuilder builder = new StringBuilder( len );
+  private int indexOfEscaped( CharSequence value, int from ) {
 
-    for( int i = 0; i < len; i++ ) {
+    int len = value.length();
+    for( int i = from; i < len; i++ ) {
+      char c = value.charAt( i );
+      if( c < replacements.length && replacements[c] != null )
+        return i;
+    }
 
-      char c = string.charAt( i );
+    return -1;
 
-      if( c == '\"' )
-        builder.append( "\\\"" );
-      else if( c == '\\' )
-        builder.append( "\\\\" );
-      else if( c < 0x0020 ) {
-        if( c == '\b' )
-          builder.append( "\\b" );
-        else if( c == '\f' )
-          builder.append( "\\f" );
-        else if( c == '\n' )
-          builder.append( "\\n" );
-        else if( c == '\r' )
-          builder.append( "\\r" );
-        else if( c == '\t' )
-          builder.append( "\\t" );
-        else
-          builder.append( String.format( "\\u%04x", (int) c ) );
-      } else
-        builder.append( c );
+  }
 
+  /**
+   * Escapes a value. The value is returned as is if nothing needs to be
+   * escaped.
+   *
+   * @param string the value to escape.
+   * @return the escaped value.
+   */
+  public String escape( String string ) {
+
+    if( indexOfEscaped( string, 0 ) < 0 )
+      return string;
+
+    StringBuilder builder = new StringBuilder( string.length() + 16 );
+    try {
+      escape( string, builder );
+    } catch( IOException ex ) {
+      // a StringBuilder never throws
+      throw new UncheckedIOException( ex );
     }
 
     return builder.toString();
 
-  } );
+  }
 
-  private final UnaryOperator<String> transform;
+  /**
+   * Escapes a value into an output. The ranges without char to escape are
+   * appended as is.
+   *
+   * @param value the value to escape.
+   * @param out the output.
+   * @throws IOException if the output fails.
+   */
+  public void escape( CharSequence value, Appendable out ) throws IOException {
+
+    int start = 0;
+    int i;
+    while( ( i = indexOfEscaped( value, start ) ) >= 0 ) {
+      if( i > start )
+        out.append( value, start, i );
+      out.append( replacements[value.charAt( i )] );
+      start = i + 1;
+    }
 
-  Escaper( UnaryOperator<String> transform ) {
-    this.transform = transform;
-  }
+    if( start == 0 )
+      out.append( value );
+    else if( start < value.length() )
+      out.append( value, start, value.length() );
 
-  public String escape( String string ) {
-    return transform.apply( string );
   }
 
 }
@@ -0,0 +1,63 @@
+package io.github.atos_digital_id.paprika.utils.templating.engine;
+
+import java.util.Collections;
+
+/**
+ * Context of the items of an iterated section. A single frame is used for all
+ * the items of the section, or for all the items rendered by the same thread
+ * in parallel mode: the current item and its index are moved at each
+ * iteration, and the iteration values ({@code @first}, {@code @last},
+ * {@code @index}, {@code @indexPlusOne} and {@code @indexIsEven}) are only
+ * computed when fetched.
+ */
+public class IterationFrame extends Context {
+
+  private final int size;
+
+  private final boolean parallel;
+
+  private int index = -1;
+
+  IterationFrame( Context parent, int size, boolean parallel ) {
+    super( parent, null, Collections.emptyMap() );
+    this.size = size;
+    this.parallel = parallel;
+  }
+
+  /**
+   * Moves the frame to an item of the list.
+   *
+   * @param index the index of the item.
+   * @param item the item.
+   */
+  public void moveTo( int index, Object item ) {
+    this.index = index;
+    root = item;
+  }
+
+  @Override
+  public boolean isParallel() {
+    return parallel || super.isParallel();
+  }
+
+  @Override
+  Object additional( String key ) {
+
+    switch( key ) {
+      case "@first":
+        return index == 0;
+      case "@last":
+        return index == size - 1;
+      case "@index":
+        return index;
+      case "@indexPlusOne":
+        return index + 1;
+      case "@indexIsEven":
+        return index % 2 == 0;
+      default:
+        return NOT_FOUND;
+    }
+
+  }
+
+}
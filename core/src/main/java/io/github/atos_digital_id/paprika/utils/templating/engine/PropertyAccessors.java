@@ -0,0 +1,93 @@
+package io.github.atos_digital_id.paprika.utils.templating.engine;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of the property accessors of the classes. A property {@code key} is
+ * read, in order, with the public methods {@code key()}, {@code getKey()} and
+ * {@code isKey()}. The accessors of a property are resolved once per class, as
+ * method handles of type {@code (Object)Object}. A property without accessor
+ * is cached as an empty array.
+ */
+class PropertyAccessors {
+
+  private PropertyAccessors() {}
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private static final MethodType ACCESSOR_TYPE =
+      MethodType.methodType( Object.class, Object.class );
+
+  private static final MethodHandle[] NONE = new MethodHandle[0];
+
+  private static final ClassValue<Map<String, MethodHandle[]>> ACCESSORS = new ClassValue<>() {
+
+    @Override
+    protected Map<String, MethodHandle[]> computeValue( Class<?> type ) {
+      return new ConcurrentHashMap<>();
+    }
+
+  };
+
+  /**
+   * Returns the accessors of a property, in order of priority.
+   *
+   * @param type the class of the object.
+   * @param key the name of the property, not blank.
+   * @return the accessors, possibly empty.
+   */
+  public static MethodHandle[] get( Class<?> type, String key ) {
+
+    Map<String, MethodHandle[]> accessors = ACCESSORS.get( type );
+
+    MethodHandle[] result = accessors.get( key );
+    if( result == null ) {
+      result = resolve( type, key );
+      accessors.putIfAbsent( key, result );
+    }
+
+    return result;
+
+  }
+
+  private static MethodHandle[] resolve( Class<?> type, String key ) {
+
+    String upper = Character.toUpperCase( key.charAt( 0 ) ) + key.substring( 1 );
+
+    List<MethodHandle> accessors = new ArrayList<>( 3 );
+    for( String name : new String[] { key, "get" + upper, "is" + upper } ) {
+      MethodHandle accessor = resolveMethod( type, name );
+      if( accessor != null )
+        accessors.add( accessor );
+    }
+
+    return accessors.isEmpty() ? NONE : accessors.toArray( NONE );
+
+  }
+
+  private static MethodHandle resolveMethod( Class<?> type, String name ) {
+
+    try {
+
+      Method method = type.getMethod( name );
+      MethodHandle accessor = LOOKUP.unreflect( method );
+      if( Modifier.isStatic( method.getModifiers() ) )
+        accessor = MethodHandles.dropArguments( accessor, 0, Object.class );
+
+      return accessor.asType( ACCESSOR_TYPE );
+
+    } catch( NoSuchMethodException | IllegalAccessException ex ) {
+      return null;
+    }
+
+  }
+
+}
@@ -1,5 +1,7 @@
 package io.github.atos_digital_id.paprika.utils.templating.engine;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 import io.github.atos_digital_id.paprika.utils.templating.engine.segment.Segment;
@@ -24,6 +26,15 @@ public class Template {
   }
 
   public void execute( StringBuilder out ) {
+    try {
+      execute( (Appendable) out );
+    } catch( IOException ex ) {
+      // a StringBuilder never throws
+      throw new UncheckedIOException( ex );
+    }
+  }
+
+  public void execute( Appendable out ) throws IOException {
     Segment.execute( segments, config, context, out );
   }
 
@@ -0,0 +1,106 @@
+package io.github.atos_digital_id.paprika.utils.templating.engine;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import io.github.atos_digital_id.paprika.utils.templating.engine.parser.Parser;
+import io.github.atos_digital_id.paprika.utils.templating.engine.segment.Segment;
+import lombok.Data;
+import lombok.NonNull;
+
+/**
+ * Bounded cache of parsed templates. The templates and the partials always
+ * start with the default delimiters, so a parsed template only depends on its
+ * source and on its indentation. The parsed segments are immutable and can be
+ * shared.
+ *
+ * The cache is shared by the whole JVM, as the engine does not know the Maven
+ * sessions, and should be cleared at the end of each session so that the
+ * templates of a previous session are not kept.
+ */
+public class TemplateCache {
+
+  private TemplateCache() {}
+
+  private static final int MAX_SIZE = 128;
+
+  private static final Pattern INDENT_POSITION = Pattern.compile( "\\A|\\R(?!\\z)" );
+
+  @Data
+  private static class Key {
+
+    private final String source;
+
+    private final String indent;
+
+  }
+
+  private static final Map<Key, List<Segment>> CACHE = new LinkedHashMap<>( 16, 0.75f, true ) {
+
+    public static final long serialVersionUID = 1;
+
+    @Override
+    protected boolean removeEldestEntry( Map.Entry<Key, List<Segment>> entry ) {
+      return this.size() > MAX_SIZE;
+    }
+
+  };
+
+  /**
+   * Clears the cache.
+   */
+  public static void clear() {
+    synchronized( CACHE ) {
+      CACHE.clear();
+    }
+  }
+
+  /**
+   * Returns the parsed segments of a template.
+   *
+   * @param source the source of the template.
+   * @return the parsed segments.
+   */
+  public static List<Segment> get( String source ) {
+    return get( source, "" );
+  }
+
+  /**
+   * Returns the parsed segments of an indented template, typically a partial.
+   * The indentation is added at the start of each line of the source.
+   *
+   * @param source the source of the template.
+   * @param indent the indentation of the template.
+   * @return the parsed segments.
+   */
+  public static List<Segment> get( String source, @NonNull String indent ) {
+
+    if( source == null || source.isEmpty() )
+      return Collections.emptyList();
+
+    Key key = new Key( source, indent );
+
+    synchronized( CACHE ) {
+      List<Segment> segments = CACHE.get( key );
+      if( segments != null )
+        return segments;
+    }
+
+    String indented = source;
+    if( !indent.isEmpty() )
+      indented = INDENT_POSITION.matcher( source ).replaceAll( "$0" + indent );
+
+    List<Segment> segments = Collections.unmodifiableList( Parser.parse( indented ) );
+
+    synchronized( CACHE ) {
+      CACHE.put( key, segments );
+    }
+
+    return segments;
+
+  }
+
+}
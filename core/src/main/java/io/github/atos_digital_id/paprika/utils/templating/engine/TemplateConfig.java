@@ -29,4 +29,9 @@ public class TemplateConfig {
     return path -> "";
   }
 
+  // lists of at least this size are rendered in parallel, 0 to disable
+  @Builder.Default
+  @With
+  private final int parallelThreshold = 0;
+
 }
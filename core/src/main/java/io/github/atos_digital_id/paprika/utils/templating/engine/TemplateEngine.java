@@ -1,34 +1,60 @@
 package io.github.atos_digital_id.paprika.utils.templating.engine;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import io.github.atos_digital_id.paprika.config.Config;
 import io.github.atos_digital_id.paprika.utils.templating.engine.segment.Segment;
-import io.github.atos_digital_id.paprika.utils.templating.engine.parser.Parser;
 
 public class TemplateEngine {
 
-  public static String execute( Config config, String source, Object root ) {
+  // smaller lists are not worth the scheduling of their items
+  private static final int PARALLEL_THRESHOLD = 64;
+
+  private static TemplateConfig templateConfig( Config config ) {
+    return new TemplateConfig(
+        config.getEscaper(),
+        name -> config.getPartialTemplate( name ),
+        config.isTemplateParallel() ? PARALLEL_THRESHOLD : 0 );
+  }
 
-    return execute(
-        new TemplateConfig( config.getEscaper(), name -> config.getPartialTemplate( name ) ),
-        source,
-        root );
+  public static String execute( Config config, String source, Object root ) {
+    return execute( templateConfig( config ), source, root );
+  }
 
+  public static void execute( Config config, String source, Object root, Appendable out )
+      throws IOException {
+    execute( templateConfig( config ), source, root, out );
   }
 
   public static String execute( TemplateConfig config, String source, Object root ) {
 
-    List<Segment> segments = Parser.parse( source );
+    StringBuilder out = new StringBuilder();
+    try {
+      execute( config, source, root, out );
+    } catch( IOException ex ) {
+      // a StringBuilder never throws
+      throw new UncheckedIOException( ex );
+    }
+
+    return out.toString();
+
+  }
+
+  public static void execute( TemplateConfig config, String source, Object root, Appendable out )
+      throws IOException {
+
+    List<Segment> segments = TemplateCache.get( source, "" );
 
     Map<String, Object> additionals = new HashMap<>();
     Context context = new Context( null, root, additionals );
 
     Template template = new Template( config, segments, context );
 
-    return template.execute();
+    template.execute( out );
 
   }
 
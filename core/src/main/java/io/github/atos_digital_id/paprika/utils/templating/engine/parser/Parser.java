@@ -9,13 +9,10 @@ import static io.github.atos_digital_id.paprika.utils.templating.engine.parser.T
 import static io.github.atos_digital_id.paprika.utils.templating.engine.parser.TagType.PARTIAL;
 import static io.github.atos_digital_id.paprika.utils.templating.engine.parser.TagType.SECTION;
 import static io.github.atos_digital_id.paprika.utils.templating.engine.parser.TagType.STRING;
-import static java.util.regex.Pattern.DOTALL;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import io.github.atos_digital_id.paprika.utils.templating.engine.segment.InterpolationSegment;
 import io.github.atos_digital_id.paprika.utils.templating.engine.segment.InvertedSegment;
@@ -43,146 +40,267 @@ public class Parser {
 
     ParseStatus status = new ParseStatus( source );
 
-    Position start = status.getCurrent();
+    int start = 0;
+    int open;
+    while( ( open = status.findOpening( start ) ) >= 0 ) {
 
-    while( !status.eof() ) {
-      if( status.isOpening() ) {
+      Tag strTag = new Tag(
+          STRING,
+          status.sub( start, open ),
+          status.position( start ),
+          status.position( open ) );
+      status.add( strTag );
 
-        Position end = status.getCurrent();
-        String str = status.sub( start, end );
-        Tag strTag = new Tag( STRING, str, start, end );
-        status.add( strTag );
+      Tag tag = parseTag( status, open );
+      status.add( tag );
 
-        Tag tag = parseTag( status );
-        status.add( tag );
+      start = tag.getEnd().getPos();
 
-        start = status.getCurrent();
-
-      } else {
-
-        status.next();
-
-      }
     }
 
-    Position end = status.getCurrent();
-    String str = status.sub( start, end );
-    Tag strTag = new Tag( STRING, str, start, end );
+    int end = source.length();
+    Tag strTag = new Tag(
+        STRING,
+        status.sub( start, end ),
+        status.position( start ),
+        status.position( end ) );
     status.add( strTag );
 
     return status.getTags();
 
   }
 
-  private static final Pattern TAG_UNESCAPED = Pattern.compile( "\\&\\s*(?<key>[^\\s]+)\\s*" );
-
-  private static final Pattern TAG_START_SECTION = Pattern.compile( "\\#\\s*(?<key>[^\\s]+)\\s*" );
-
-  private static final Pattern TAG_END_SECTION = Pattern.compile( "\\/\\s*(?<key>[^\\s]*)\\s*" );
-
-  private static final Pattern TAG_INVERTED_SECTION =
-      Pattern.compile( "\\^\\s*(?<key>[^\\s]*)\\s*" );
+  // same chars as the \s regex
+  private static boolean isSpace( char c ) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
 
-  private static final Pattern TAG_COMMENT = Pattern.compile( "\\!.*", DOTALL );
+  // same chars as the \h regex
+  private static boolean isHorizontalSpace( char c ) {
+    return c == ' '
+        || c == '\t'
+        || c == '\u00A0'
+        || c == '\u1680'
+        || c == '\u180E'
+        || ( c >= '\u2000' && c <= '\u200A' )
+        || c == '\u202F'
+        || c == '\u205F'
+        || c == '\u3000';
+  }
 
-  private static final Pattern TAG_PARTIAL = Pattern.compile( "\\>\\s*(?<key>[^\\s]+)\\s*" );
+  // same chars as the \R regex, \r\n being handled by the callers
+  private static boolean isLineTerminator( char c ) {
+    return c == '\n'
+        || c == '\u000B'
+        || c == '\f'
+        || c == '\r'
+        || c == '\u0085'
+        || c == '\u2028'
+        || c == '\u2029';
+  }
 
-  private static final Pattern TAG_DELIM =
-      Pattern.compile( "\\=\\s*(?<start>[^=\\s]+)\\s+(?<end>[^=\\s]+)\\s*\\=" );
+  /**
+   * Extracts a single word from a tag content, surrounded by optional spaces.
+   *
+   * @param content the content of the tag.
+   * @param from the start of the word and its surrounding spaces.
+   * @param allowEmpty true if an empty word is valid.
+   * @return the word, or {@code null} if not valid.
+   */
+  private static String word( String content, int from, boolean allowEmpty ) {
 
-  private static final Pattern TAG_VARIABLE = Pattern.compile( "\\s*(?<key>[^\\s]+)\\s*" );
+    int start = from;
+    int end = content.length();
+    while( start < end && isSpace( content.charAt( start ) ) )
+      start++;
+    while( end > start && isSpace( content.charAt( end - 1 ) ) )
+      end--;
 
-  private static Tag parseTag( ParseStatus status ) {
+    if( start == end && !allowEmpty )
+      return null;
 
-    Position start = status.getCurrent();
-    status.next( status.getOpen().length() );
+    for( int i = start; i < end; i++ )
+      if( isSpace( content.charAt( i ) ) )
+        return null;
 
-    if( status.peek() == '{' ) {
+    return content.substring( start, end );
 
-      status.next();
-      Position keyStart = status.getCurrent();
+  }
 
-      String escapedClose = "}" + status.getClose();
+  private static boolean isDelimiterChar( char c ) {
+    return c != '=' && !isSpace( c );
+  }
 
-      while( !status.eof() && !status.match( escapedClose ) )
-        status.next();
+  /**
+   * Parses the content of a delimiters tag, like {@code =<% %>=}.
+   *
+   * @param content the content of the tag.
+   * @return the opening and closing delimiters, or {@code null} if not valid.
+   */
+  private static String[] delimiters( String content ) {
 
-      if( status.eof() )
-        ParseException.unclosedTag( start, escapedClose );
+    int len = content.length();
+    if( len < 2 || content.charAt( 0 ) != '=' || content.charAt( len - 1 ) != '=' )
+      return null;
 
-      String key = status.sub( keyStart, status.getCurrent() ).trim();
+    int i = 1;
+    int end = len - 1;
+    while( i < end && isSpace( content.charAt( i ) ) )
+      i++;
 
-      status.next( escapedClose.length() );
+    int openStart = i;
+    while( i < end && isDelimiterChar( content.charAt( i ) ) )
+      i++;
+    int openEnd = i;
 
-      return new Tag( INTERPOLATION_RAW, key, start, status.getCurrent() );
+    while( i < end && isSpace( content.charAt( i ) ) )
+      i++;
 
-    }
+    int closeStart = i;
+    while( i < end && isDelimiterChar( content.charAt( i ) ) )
+      i++;
+    int closeEnd = i;
 
-    Position keyStart = status.getCurrent();
+    while( i < end && isSpace( content.charAt( i ) ) )
+      i++;
 
-    while( !status.eof() && !status.isClosing() )
-      status.next();
+    if( openStart == openEnd || openEnd == closeStart || closeStart == closeEnd || i != end )
+      return null;
 
-    if( status.eof() )
-      ParseException.unclosedTag( start, status.getClose() );
+    return new String[] {
+        content.substring( openStart, openEnd ),
+        content.substring( closeStart, closeEnd ) };
 
-    String key = status.sub( keyStart, status.getCurrent() );
-    status.next( status.getClose().length() );
-    Position end = status.getCurrent();
+  }
 
-    Matcher matcher;
+  private static Tag parseTag( ParseStatus status, int open ) {
 
-    if( ( matcher = TAG_UNESCAPED.matcher( key ) ).matches() ) {
+    String source = status.getSource();
+    Position start = status.position( open );
+    int keyStart = open + status.getOpen().length();
 
-      return new Tag( INTERPOLATION_RAW, matcher.group( "key" ), start, end );
+    if( keyStart < source.length() && source.charAt( keyStart ) == '{' ) {
 
-    } else if( ( matcher = TAG_START_SECTION.matcher( key ) ).matches() ) {
+      String escapedClose = "}" + status.getClose();
 
-      return new Tag( SECTION, matcher.group( "key" ), start, end );
+      int keyEnd = source.indexOf( escapedClose, keyStart + 1 );
+      if( keyEnd < 0 )
+        ParseException.unclosedTag( start, escapedClose );
 
-    } else if( ( matcher = TAG_END_SECTION.matcher( key ) ).matches() ) {
+      String key = status.sub( keyStart + 1, keyEnd ).trim();
 
-      return new Tag( END, matcher.group( "key" ), start, end );
+      Position end = status.position( keyEnd + escapedClose.length() );
+      return new Tag( INTERPOLATION_RAW, key, start, end );
 
-    } else if( ( matcher = TAG_INVERTED_SECTION.matcher( key ) ).matches() ) {
+    }
 
-      return new Tag( INVERTED, matcher.group( "key" ), start, end );
+    int keyEnd = status.findClosing( keyStart );
+    if( keyEnd < 0 )
+      ParseException.unclosedTag( start, status.getClose() );
 
-    } else if( ( matcher = TAG_COMMENT.matcher( key ) ).matches() ) {
+    String content = status.sub( keyStart, keyEnd );
+    Position end = status.position( keyEnd + status.getClose().length() );
+
+    String key;
+    switch( content.isEmpty() ? 0 : content.charAt( 0 ) ) {
+
+      case '&':
+        if( ( key = word( content, 1, false ) ) != null )
+          return new Tag( INTERPOLATION_RAW, key, start, end );
+        break;
+
+      case '#':
+        if( ( key = word( content, 1, false ) ) != null )
+          return new Tag( SECTION, key, start, end );
+        break;
+
+      case '/':
+        if( ( key = word( content, 1, true ) ) != null )
+          return new Tag( END, key, start, end );
+        break;
+
+      case '^':
+        if( ( key = word( content, 1, true ) ) != null )
+          return new Tag( INVERTED, key, start, end );
+        break;
+
+      case '!':
+        return new Tag( COMMENT, "", start, end );
+
+      case '>':
+        if( ( key = word( content, 1, false ) ) != null )
+          return new Tag( PARTIAL, key, start, end );
+        break;
+
+      case '=':
+        String[] delimiters = delimiters( content );
+        if( delimiters != null ) {
+          status.setOpen( delimiters[0] );
+          status.setClose( delimiters[1] );
+          return new Tag( DELIMITERS, "", start, end );
+        }
+        break;
 
-      return new Tag( COMMENT, "", start, end );
+      default:
+        break;
 
-    } else if( ( matcher = TAG_PARTIAL.matcher( key ) ).matches() ) {
+    }
 
-      return new Tag( PARTIAL, matcher.group( "key" ), start, end );
+    if( ( key = word( content, 0, false ) ) != null )
+      return new Tag( INTERPOLATION, key, start, end );
 
-    } else if( ( matcher = TAG_DELIM.matcher( key ) ).matches() ) {
+    ParseException.unexpectedTag( start, content );
+    return null; // unreachable
 
-      status.setOpen( matcher.group( "start" ) );
-      status.setClose( matcher.group( "end" ) );
+  }
 
-      return new Tag( DELIMITERS, "", start, end );
+  /**
+   * Finds the trailing horizontal spaces of the string before a standalone
+   * tag, which must start a line.
+   *
+   * @param data the string before the tag.
+   * @param first true if the string starts the template.
+   * @return the start of the trailing spaces, or {@code -1} if the tag does
+   *         not start a line.
+   */
+  private static int endSpaces( String data, boolean first ) {
 
-    } else if( ( matcher = TAG_VARIABLE.matcher( key ) ).matches() ) {
+    int start = data.length();
+    while( start > 0 && isHorizontalSpace( data.charAt( start - 1 ) ) )
+      start--;
 
-      return new Tag( INTERPOLATION, matcher.group( "key" ), start, end );
+    if( start == 0 )
+      return first ? 0 : -1;
 
-    } else {
+    return isLineTerminator( data.charAt( start - 1 ) ) ? start : -1;
 
-      ParseException.unexpectedTag( start, key );
-      return null; // unreachable
+  }
 
-    }
+  /**
+   * Finds the leading empty line of the string after a standalone tag.
+   *
+   * @param data the string after the tag.
+   * @param last true if the string ends the template.
+   * @return the end of the empty line, including its line terminator, or
+   *         {@code -1} if the tag does not end a line.
+   */
+  private static int startEmptyLine( String data, boolean last ) {
 
-  }
+    int len = data.length();
+    int end = 0;
+    while( end < len && isHorizontalSpace( data.charAt( end ) ) )
+      end++;
 
-  private static final Pattern FIRST_END_SPACES = Pattern.compile( "(?<=\\A|\\R)\\h*\\z" );
+    if( end == len )
+      return last ? end : -1;
 
-  private static final Pattern END_SPACES = Pattern.compile( "(?<=\\R)\\h*\\z" );
+    char c = data.charAt( end );
+    if( c == '\r' && end + 1 < len && data.charAt( end + 1 ) == '\n' )
+      return end + 2;
 
-  private static final Pattern LAST_START_EMPTY_LINE = Pattern.compile( "\\A\\h*(\\R|\\z)" );
+    return isLineTerminator( c ) ? end + 1 : -1;
 
-  private static final Pattern START_EMPTY_LINE = Pattern.compile( "\\A\\h*\\R" );
+  }
 
   private static List<TrimmedTag> trimTags( List<Tag> tags ) {
 
@@ -203,23 +321,25 @@ public class Parser {
 
         TrimmedTag prev = trimmed.get( i - 1 );
         String prevData = prev.getData();
-        Pattern prevPattern = i == 1 ? FIRST_END_SPACES : END_SPACES;
-        Matcher prevMatcher = prevPattern.matcher( prevData );
+        int prevStart = endSpaces( prevData, i == 1 );
 
         TrimmedTag next = trimmed.get( i + 1 );
         String nextData = next.getData();
-        Pattern nextPattern = i == s - 2 ? LAST_START_EMPTY_LINE : START_EMPTY_LINE;
-        Matcher nextMatcher = nextPattern.matcher( nextData );
+        int nextEnd = prevStart < 0 ? -1 : startEmptyLine( nextData, i == s - 2 );
 
-        if( prevMatcher.find() && nextMatcher.find() ) {
+        if( prevStart >= 0 && nextEnd >= 0 ) {
 
-          String trimmedPrev = prevData.substring( 0, prevMatcher.start() );
+          String trimmedPrev = prevData.substring( 0, prevStart );
           trimmed.set( i - 1, prev.withData( trimmedPrev ) );
 
-          String trimmedNext = nextData.substring( nextMatcher.end() );
+          String trimmedNext = nextData.substring( nextEnd );
           trimmed.set( i + 1, next.withData( trimmedNext ) );
 
-          trimmed.set( i, tag.withTrimmed( prevMatcher.group(), nextMatcher.group() ) );
+          trimmed.set(
+              i,
+              tag.withTrimmed(
+                  prevData.substring( prevStart ),
+                  nextData.substring( 0, nextEnd ) ) );
 
         }
 
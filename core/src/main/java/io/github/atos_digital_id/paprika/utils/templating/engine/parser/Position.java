@@ -1,14 +1,61 @@
 package io.github.atos_digital_id.paprika.utils.templating.engine.parser;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.ToString;
 
+/**
+ * Position in a template source. The line and the column are only needed by
+ * the error messages, and are computed on demand.
+ */
 @Data
 public class Position {
 
-  private final int line;
-
-  private final int col;
+  @NonNull
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final String source;
 
   private final int pos;
 
+  public int getLine() {
+    return locate()[0];
+  }
+
+  public int getCol() {
+    return locate()[1];
+  }
+
+  // a \r followed by \n is a single line terminator, counted on the \n
+  private int[] locate() {
+
+    int line = 0;
+    int col = 0;
+
+    int end = Math.min( pos, source.length() );
+    for( int i = 0; i < end; i++ ) {
+
+      char c = source.charAt( i );
+      boolean nl = ( c == '\r' && ( i + 1 >= source.length() || source.charAt( i + 1 ) != '\n' ) )
+          || c == '\n'
+          || c == '\u000B'
+          || c == '\u000C'
+          || c == '\u0085'
+          || c == '\u2028'
+          || c == '\u2029';
+
+      if( nl ) {
+        line++;
+        col = 0;
+      } else {
+        col++;
+      }
+
+    }
+
+    return new int[] { line, col };
+
+  }
+
 }
@@ -8,6 +8,6 @@ public enum CommentSegment implements Segment {
   INSTANCE;
 
   @Override
-  public void execute( TemplateConfig config, Context context, StringBuilder out ) {}
+  public void execute( TemplateConfig config, Context context, Appendable out ) {}
 
 }
@@ -1,25 +1,47 @@
 package io.github.atos_digital_id.paprika.utils.templating.engine.segment;
 
-import java.util.Objects;
+import static lombok.AccessLevel.NONE;
+
+import java.io.IOException;
 
 import io.github.atos_digital_id.paprika.utils.templating.engine.Context;
 import io.github.atos_digital_id.paprika.utils.templating.engine.TemplateConfig;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 
 @Data
 public class InterpolationSegment implements Segment {
 
   private final String key;
 
+  @Getter( NONE )
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final String[] path;
+
   private final boolean escaped;
 
+  public InterpolationSegment( String key, boolean escaped ) {
+    this.key = key;
+    this.path = Context.splitKey( key );
+    this.escaped = escaped;
+  }
+
   @Override
-  public void execute( TemplateConfig config, Context context, StringBuilder out ) {
+  public void execute( TemplateConfig config, Context context, Appendable out )
+      throws IOException {
+
+    Object value = context.fetch( path );
+    if( value == null )
+      return;
 
-    String value = Objects.toString( context.fetch( key ), "" );
+    CharSequence chars = value instanceof CharSequence ? (CharSequence) value : value.toString();
     if( escaped )
-      value = config.getEscaper().escape( value );
-    out.append( value );
+      config.getEscaper().escape( chars, out );
+    else
+      out.append( chars );
 
   }
 
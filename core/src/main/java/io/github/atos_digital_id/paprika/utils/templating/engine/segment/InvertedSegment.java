@@ -1,5 +1,8 @@
 package io.github.atos_digital_id.paprika.utils.templating.engine.segment;
 
+import static lombok.AccessLevel.NONE;
+
+import java.io.IOException;
 import java.util.List;
 
 import io.github.atos_digital_id.paprika.utils.templating.engine.Context;
@@ -8,18 +11,33 @@ import io.github.atos_digital_id.paprika.utils.templating.engine.TemplateConfig;
 import io.github.atos_digital_id.paprika.utils.templating.engine.api.CustomList;
 import io.github.atos_digital_id.paprika.utils.templating.engine.api.InvertibleLambda;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 
 @Data
 public class InvertedSegment implements Segment {
 
   private final String key;
 
+  @Getter( NONE )
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final String[] path;
+
   private final List<Segment> segments;
 
+  public InvertedSegment( String key, List<Segment> segments ) {
+    this.key = key;
+    this.path = Context.splitKey( key );
+    this.segments = segments;
+  }
+
   @Override
-  public void execute( TemplateConfig config, Context context, StringBuilder out ) {
+  public void execute( TemplateConfig config, Context context, Appendable out )
+      throws IOException {
 
-    Object value = context.fetch( key );
+    Object value = context.fetch( path );
 
     if( value == null ) {
 
@@ -57,9 +75,14 @@ public class InvertedSegment implements Segment {
 
     } else if( value instanceof InvertibleLambda ) {
 
+      if( context.isParallel() )
+        throw new SectionSegment.LambdaInParallelException();
+
       InvertibleLambda casted = (InvertibleLambda) value;
       Template template = new Template( config, segments, context );
-      casted.invertExecute( template, out );
+      StringBuilder lambdaOut = new StringBuilder();
+      casted.invertExecute( template, lambdaOut );
+      out.append( lambdaOut );
 
     }
 
@@ -1,28 +1,71 @@
 package io.github.atos_digital_id.paprika.utils.templating.engine.segment;
 
-import java.util.HashMap;
+import static lombok.AccessLevel.NONE;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntFunction;
 
 import io.github.atos_digital_id.paprika.utils.templating.engine.Context;
+import io.github.atos_digital_id.paprika.utils.templating.engine.IterationFrame;
 import io.github.atos_digital_id.paprika.utils.templating.engine.Template;
 import io.github.atos_digital_id.paprika.utils.templating.engine.TemplateConfig;
 import io.github.atos_digital_id.paprika.utils.templating.engine.api.CustomList;
 import io.github.atos_digital_id.paprika.utils.templating.engine.api.Lambda;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 
 @Data
 public class SectionSegment implements Segment {
 
+  /**
+   * Thrown when a lambda is met in an item rendered in parallel. The items from
+   * the failed chunk are then rendered again, serially, as the lambda was not
+   * executed.
+   */
+  static class LambdaInParallelException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    LambdaInParallelException() {
+      super( null, null, false, false );
+    }
+
+  }
+
+  // items rendered by a task, small enough to balance the items of different lengths
+  private static final int CHUNK_SIZE = 8;
+
+  // chunks rendered ahead of the written one, per thread, to bound the buffered output
+  private static final int CHUNKS_PER_THREAD = 4;
+
   private final String key;
 
+  @Getter( NONE )
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final String[] path;
+
   private final List<Segment> segments;
 
+  public SectionSegment( String key, List<Segment> segments ) {
+    this.key = key;
+    this.path = Context.splitKey( key );
+    this.segments = segments;
+  }
+
   @Override
-  public void execute( TemplateConfig config, Context context, StringBuilder out ) {
+  public void execute( TemplateConfig config, Context context, Appendable out )
+      throws IOException {
 
-    Object value = context.fetch( key );
+    Object value = context.fetch( path );
 
     if( value == null )
       return;
@@ -57,9 +100,14 @@ public class SectionSegment implements Segment {
 
     } else if( value instanceof Lambda ) {
 
+      if( context.isParallel() )
+        throw new LambdaInParallelException();
+
       Lambda casted = (Lambda) value;
       Template template = new Template( config, segments, context );
-      casted.execute( template, out );
+      StringBuilder lambdaOut = new StringBuilder();
+      casted.execute( template, lambdaOut );
+      out.append( lambdaOut );
 
     } else {
 
@@ -73,26 +121,114 @@ public class SectionSegment implements Segment {
       TemplateConfig config,
       Context base,
       int size,
-      Function<Integer, Object> getter,
-      StringBuilder out ) {
+      IntFunction<Object> getter,
+      Appendable out ) throws IOException {
 
-    for( int i = 0; i < size; i++ ) {
+    int threshold = config.getParallelThreshold();
+    if( threshold > 0 && size >= threshold && !base.isParallel() )
+      executeParallel( config, base, size, getter, out );
+    else
+      executeSerial( config, base, size, getter, 0, out );
 
-      Object value = getter.apply( i );
+  }
 
-      Map<String, Object> add = new HashMap<>();
-      add.put( "@first", i == 0 );
-      add.put( "@last", i == ( size - 1 ) );
-      add.put( "@index", i );
-      add.put( "@indexPlusOne", i + 1 );
-      add.put( "@indexIsEven", i % 2 == 0 );
+  private void executeSerial(
+      TemplateConfig config,
+      Context base,
+      int size,
+      IntFunction<Object> getter,
+      int from,
+      Appendable out ) throws IOException {
 
-      Context sub = base.sub( value, add );
+    IterationFrame frame = base.iterate( size );
 
-      Segment.execute( segments, config, sub, out );
+    for( int i = from; i < size; i++ ) {
+      frame.moveTo( i, getter.apply( i ) );
+      Segment.execute( segments, config, frame, out );
+    }
+
+  }
+
+  /*
+   * The chunks are rendered on the common pool, and written in order as soon as
+   * they are done. At most CHUNKS_PER_THREAD chunks per thread are rendered
+   * ahead of the written one, so the output of a long list is never buffered
+   * as a whole. If a chunk meets a lambda, the items from this chunk are
+   * rendered serially: the previous chunks are already written.
+   */
+  private void executeParallel(
+      TemplateConfig config,
+      Context base,
+      int size,
+      IntFunction<Object> getter,
+      Appendable out ) throws IOException {
+
+    int chunks = ( size + CHUNK_SIZE - 1 ) / CHUNK_SIZE;
+    int ahead = CHUNKS_PER_THREAD * ForkJoinPool.getCommonPoolParallelism();
+
+    Deque<ForkJoinTask<StringBuilder>> pending = new ArrayDeque<>();
+    try {
+
+      int submitted = 0;
+      for( int written = 0; written < chunks; written++ ) {
+
+        while( submitted < chunks && pending.size() <= ahead ) {
+          int from = submitted * CHUNK_SIZE;
+          int to = Math.min( size, from + CHUNK_SIZE );
+          pending.add(
+              ForkJoinPool.commonPool()
+                  .submit( () -> executeChunk( config, base, size, getter, from, to ) ) );
+          submitted++;
+        }
+
+        StringBuilder output;
+        try {
+          output = pending.remove().join();
+        } catch( LambdaInParallelException ex ) {
+          cancel( pending );
+          executeSerial( config, base, size, getter, written * CHUNK_SIZE, out );
+          return;
+        }
+
+        out.append( output );
+
+      }
+
+    } finally {
+      cancel( pending );
+    }
 
+  }
+
+  private static void cancel( Deque<ForkJoinTask<StringBuilder>> pending ) {
+    for( ForkJoinTask<StringBuilder> task : pending )
+      task.cancel( false );
+    pending.clear();
+  }
+
+  private StringBuilder executeChunk(
+      TemplateConfig config,
+      Context base,
+      int size,
+      IntFunction<Object> getter,
+      int from,
+      int to ) {
+
+    IterationFrame frame = base.iterateInParallel( size );
+    StringBuilder out = new StringBuilder();
+
+    try {
+      for( int i = from; i < to; i++ ) {
+        frame.moveTo( i, getter.apply( i ) );
+        Segment.execute( segments, config, frame, out );
+      }
+    } catch( IOException ex ) {
+      // a StringBuilder never throws
+      throw new UncheckedIOException( ex );
     }
 
+    return out;
+
   }
 
 }
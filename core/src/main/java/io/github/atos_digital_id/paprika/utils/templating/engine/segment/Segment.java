@@ -1,5 +1,6 @@
 package io.github.atos_digital_id.paprika.utils.templating.engine.segment;
 
+import java.io.IOException;
 import java.util.List;
 
 import io.github.atos_digital_id.paprika.utils.templating.engine.Context;
@@ -11,13 +12,14 @@ public interface Segment {
       List<Segment> segments,
       TemplateConfig config,
       Context context,
-      StringBuilder out ) {
+      Appendable out ) throws IOException {
 
     for( Segment segment : segments )
       segment.execute( config, context, out );
 
   }
 
-  public void execute( TemplateConfig config, Context context, StringBuilder out );
+  public void execute( TemplateConfig config, Context context, Appendable out )
+      throws IOException;
 
 }
@@ -1,5 +1,7 @@
 package io.github.atos_digital_id.paprika.utils.templating.engine.segment;
 
+import java.io.IOException;
+
 import io.github.atos_digital_id.paprika.utils.templating.engine.Context;
 import io.github.atos_digital_id.paprika.utils.templating.engine.TemplateConfig;
 import lombok.Data;
@@ -10,7 +12,8 @@ public class StringSegment implements Segment {
   private final String text;
 
   @Override
-  public void execute( TemplateConfig config, Context context, StringBuilder out ) {
+  public void execute( TemplateConfig config, Context context, Appendable out )
+      throws IOException {
     out.append( text );
   }
 
@@ -0,0 +1,55 @@
+package io.github.atos_digital_id.paprika.utils.templating.value;
+
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+
+import lombok.NonNull;
+
+/**
+ * Session cache of the parsed commit messages, indexed by commit id. The
+ * changelogs of the modules share most of their commits, whose messages are
+ * parsed once for the whole session, as long as the memory allows it: the
+ * parsed messages are softly referenced.
+ */
+@Named
+@Singleton
+public class CommitMessageCache {
+
+  private final Map<ObjectId, SoftReference<CommitMessageValue>> messages =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Returns the parsed message of a commit.
+   *
+   * @param commit the commit, with its body.
+   * @return the parsed message.
+   */
+  public CommitMessageValue get( @NonNull RevCommit commit ) {
+
+    SoftReference<CommitMessageValue> reference = messages.get( commit );
+    CommitMessageValue message = reference == null ? null : reference.get();
+
+    if( message == null ) {
+      message = CommitMessageValue.wrap( commit.getFullMessage() );
+      messages.put( commit.copy(), new SoftReference<>( message ) );
+    }
+
+    return message;
+
+  }
+
+  /**
+   * Clears the cache.
+   */
+  public void clear() {
+    messages.clear();
+  }
+
+}
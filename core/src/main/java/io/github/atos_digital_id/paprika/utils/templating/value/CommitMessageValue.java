@@ -1,16 +1,11 @@
 package io.github.atos_digital_id.paprika.utils.templating.value;
 
-import static java.util.regex.Pattern.CASE_INSENSITIVE;
-import static java.util.regex.Pattern.MULTILINE;
-
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import io.github.atos_digital_id.paprika.utils.templating.engine.api.AbstractCustomList;
 import io.github.atos_digital_id.paprika.utils.templating.engine.api.AbstractCustomMap;
@@ -30,17 +25,6 @@ import lombok.NonNull;
 @Builder
 public class CommitMessageValue {
 
-  private static final Pattern FIRST_LINE = Pattern.compile( "\\A(.*)$", MULTILINE );
-
-  private static final Pattern FOOTER_START = Pattern
-      .compile( "(?<=\\R)\\h*\\R(?=([A-Z0-9_-]+|BREAKING CHANGE)\\s*(:|#))", CASE_INSENSITIVE );
-
-  private static final Pattern FOOTER_KEY = Pattern
-      .compile( "^(?<key>[A-Z0-9_-]+|BREAKING CHANGE)\\s*(:|#)", CASE_INSENSITIVE | MULTILINE );
-
-  private static final Pattern CONVENTIONAL_FIRST_PATTERN = Pattern.compile(
-      "(?<type>[^(!:\\s]+)\\s*(\\((?<scope>[^)]+)\\))?\\s*(?<breaking>!?)\\s*:\\s*(?<desc>.*)" );
-
   private static final String BREAKING_CHANGE = "BREAKING CHANGE";
 
   private static final String BREAKING_CHANGE_TIRET = "BREAKING-CHANGE";
@@ -50,6 +34,175 @@ public class CommitMessageValue {
     return k.equals( BREAKING_CHANGE ) ? BREAKING_CHANGE_TIRET : k;
   }
 
+  /*
+   * Scanning of the message. The message is read once, with the same chars
+   * classes as the regular expressions: \s, \h, \R, and the line terminators
+   * of the . and ^ operators.
+   */
+
+  private static boolean isSpace( char c ) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+
+  private static boolean isHorizontalSpace( char c ) {
+    return c == ' '
+        || c == '\t'
+        || c == '\u00A0'
+        || c == '\u1680'
+        || c == '\u180E'
+        || ( c >= '\u2000' && c <= '\u200A' )
+        || c == '\u202F'
+        || c == '\u205F'
+        || c == '\u3000';
+  }
+
+  private static boolean isLineBreak( char c ) {
+    return c == '\u000B' || c == '\f' || isLineTerminator( c );
+  }
+
+  // line terminators of the . and ^ operators
+  private static boolean isLineTerminator( char c ) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+  }
+
+  private static int skipSpaces( String message, int from, int to ) {
+    int i = from;
+    while( i < to && isSpace( message.charAt( i ) ) )
+      i++;
+    return i;
+  }
+
+  // end of the line break at the given index, or -1 if there is none
+  private static int lineBreakEnd( String message, int i ) {
+
+    int len = message.length();
+    if( i >= len || !isLineBreak( message.charAt( i ) ) )
+      return -1;
+
+    if( message.charAt( i ) == '\r' && i + 1 < len && message.charAt( i + 1 ) == '\n' )
+      return i + 2;
+
+    return i + 1;
+
+  }
+
+  // ASCII case insensitive match of an upper case string
+  private static boolean matchesIgnoreCase( String message, int i, String upper ) {
+
+    if( i + upper.length() > message.length() )
+      return false;
+
+    for( int j = 0; j < upper.length(); j++ ) {
+      char c = message.charAt( i + j );
+      char u = upper.charAt( j );
+      if( c != u && !( u >= 'A' && u <= 'Z' && c == u + ( 'a' - 'A' ) ) )
+        return false;
+    }
+
+    return true;
+
+  }
+
+  private static boolean isFooterKeyChar( char c ) {
+    return ( c >= 'A' && c <= 'Z' )
+        || ( c >= 'a' && c <= 'z' )
+        || ( c >= '0' && c <= '9' )
+        || c == '_'
+        || c == '-';
+  }
+
+  /**
+   * Matches a footer key and its separator ({@code :} or {@code #}).
+   *
+   * @param message the message.
+   * @param i the start of the key.
+   * @return the end of the key and the end of the separator, or {@code null}
+   *         if no footer key starts here.
+   */
+  private static int[] footerKey( String message, int i ) {
+
+    int len = message.length();
+
+    int keyEnd = i;
+    while( keyEnd < len && isFooterKeyChar( message.charAt( keyEnd ) ) )
+      keyEnd++;
+
+    if( keyEnd == i || !isSeparator( message, skipSpaces( message, keyEnd, len ) ) ) {
+
+      if( !matchesIgnoreCase( message, i, BREAKING_CHANGE ) )
+        return null;
+
+      keyEnd = i + BREAKING_CHANGE.length();
+      if( !isSeparator( message, skipSpaces( message, keyEnd, len ) ) )
+        return null;
+
+    }
+
+    return new int[] { keyEnd, skipSpaces( message, keyEnd, len ) + 1 };
+
+  }
+
+  private static boolean isSeparator( String message, int i ) {
+    return i < message.length() && ( message.charAt( i ) == ':' || message.charAt( i ) == '#' );
+  }
+
+  /**
+   * Finds the blank line before the footers: a line with only horizontal
+   * spaces, after a line break and followed by a footer key.
+   *
+   * @param message the message.
+   * @return the start and the end of the blank line, or {@code null} if
+   *         there is no footer.
+   */
+  private static int[] footersStart( String message ) {
+
+    int len = message.length();
+    for( int i = 1; i < len; i++ ) {
+
+      if( !isLineBreak( message.charAt( i - 1 ) ) )
+        continue;
+
+      int end = i;
+      while( end < len && isHorizontalSpace( message.charAt( end ) ) )
+        end++;
+
+      end = lineBreakEnd( message, end );
+      if( end >= 0 && footerKey( message, end ) != null )
+        return new int[] { i, end };
+
+    }
+
+    return null;
+
+  }
+
+  // start of a line, for the ^ operator in multiline mode
+  private static boolean isLineStart( String message, int i ) {
+
+    if( i >= message.length() )
+      return false;
+    if( i == 0 )
+      return true;
+
+    char c = message.charAt( i - 1 );
+    return isLineTerminator( c ) && !( c == '\r' && message.charAt( i ) == '\n' );
+
+  }
+
+  private static void addFooterValues( List<String> values, String message, int start, int end ) {
+
+    int valueStart = start;
+    for( int i = start; i <= end; i++ ) {
+      if( i == end || isLineBreak( message.charAt( i ) ) ) {
+        String value = message.substring( valueStart, i ).trim();
+        if( !value.isEmpty() )
+          values.add( value );
+        valueStart = i + 1;
+      }
+    }
+
+  }
+
   /**
    * Create a new {@code CommitMessageValue} wrapping the given commit message.
    *
@@ -62,75 +215,108 @@ public class CommitMessageValue {
 
     builder.full( message );
 
-    Matcher firstLineMatcher = FIRST_LINE.matcher( message );
-    if( !firstLineMatcher.find() )
-      throw new IllegalStateException( "No first line find in '" + message + "'." );
-    String firstLine = firstLineMatcher.group( 1 ).trim();
+    int len = message.length();
+
+    int firstLineEnd = 0;
+    while( firstLineEnd < len && !isLineTerminator( message.charAt( firstLineEnd ) ) )
+      firstLineEnd++;
+    String firstLine = message.substring( 0, firstLineEnd ).trim();
     builder.firstLine( firstLine );
 
-    Matcher footerMatcher = FOOTER_START.matcher( message );
-    boolean findFooters = footerMatcher.find();
+    int[] footersStart = footersStart( message );
 
-    int bodyEnd = findFooters ? footerMatcher.start() : message.length();
-    String body = message.substring( firstLineMatcher.end(), bodyEnd ).trim();
+    int bodyEnd = footersStart != null ? footersStart[0] : len;
+    String body = message.substring( firstLineEnd, bodyEnd ).trim();
     builder.body( body );
 
     Map<String, List<String>> footers = new HashMap<>();
-    if( findFooters ) {
-
-      footerMatcher.usePattern( FOOTER_KEY );
+    if( footersStart != null ) {
 
       String key = null;
       int valuesStart = 0;
-      while( footerMatcher.find() ) {
+      for( int i = footersStart[1]; i < len; i++ ) {
+
+        int[] footerKey;
+        if( !isLineStart( message, i ) || ( footerKey = footerKey( message, i ) ) == null )
+          continue;
 
         if( key != null ) {
           List<String> values = footers.computeIfAbsent( key, k -> new ArrayList<>() );
-          for( String v : message.substring( valuesStart, footerMatcher.start() ).split( "\\R" ) ) {
-            String t = v.trim();
-            if( !t.isEmpty() )
-              values.add( t );
-          }
+          addFooterValues( values, message, valuesStart, i );
         }
 
-        key = canonicFooterKey( footerMatcher.group( "key" ) );
-        valuesStart = footerMatcher.end();
+        key = canonicFooterKey( message.substring( i, footerKey[0] ) );
+        valuesStart = footerKey[1];
+        i = valuesStart - 1;
 
       }
       List<String> values = footers.computeIfAbsent( key, k -> new ArrayList<>() );
-      for( String v : message.substring( valuesStart ).split( "\\R" ) ) {
-        String t = v.trim();
-        if( !t.isEmpty() )
-          values.add( t );
-      }
+      addFooterValues( values, message, valuesStart, len );
 
     }
 
-    Matcher firstMatcher = CONVENTIONAL_FIRST_PATTERN.matcher( firstLine );
-    if( firstMatcher.matches() ) {
+    parseConventional( firstLine, builder, footers );
 
-      builder.isConventional( true );
+    List<FooterValue> footersValues = new ArrayList<>();
+    for( String key : footers.keySet() )
+      footersValues.add( new FooterValue( key, footers.get( key ) ) );
+    Collections.sort( footersValues );
+    builder.footers( new FooterListValue( footersValues ) );
 
-      builder.type( firstMatcher.group( "type" ).toLowerCase().trim() );
+    return builder.build();
 
-      builder.scope( new ScopeValue( firstMatcher.group( "scope" ) ) );
+  }
 
-      String description = firstMatcher.group( "desc" ).trim();
-      builder.description( description );
+  /**
+   * Parses a conventional first line: {@code type(scope)!: description}, the
+   * scope and the bang being optional.
+   */
+  private static void parseConventional(
+      String firstLine,
+      CommitMessageValueBuilder builder,
+      Map<String, List<String>> footers ) {
+
+    int len = firstLine.length();
+
+    int typeEnd = 0;
+    while( typeEnd < len ) {
+      char c = firstLine.charAt( typeEnd );
+      if( c == '(' || c == '!' || c == ':' || isSpace( c ) )
+        break;
+      typeEnd++;
+    }
+    if( typeEnd == 0 )
+      return;
 
-      if( !firstMatcher.group( "breaking" ).isBlank()
-          && !footers.keySet().stream().anyMatch( BREAKING_CHANGE_TIRET::equals ) )
-        footers.put( BREAKING_CHANGE_TIRET, Collections.singletonList( description ) );
+    int i = skipSpaces( firstLine, typeEnd, len );
 
+    String scope = null;
+    if( i < len && firstLine.charAt( i ) == '(' ) {
+      int scopeEnd = firstLine.indexOf( ')', i + 1 );
+      if( scopeEnd > i + 1 ) {
+        scope = firstLine.substring( i + 1, scopeEnd );
+        i = skipSpaces( firstLine, scopeEnd + 1, len );
+      }
     }
 
-    List<FooterValue> footersValues = new ArrayList<>();
-    for( String key : footers.keySet() )
-      footersValues.add( new FooterValue( key, footers.get( key ) ) );
-    Collections.sort( footersValues );
-    builder.footers( new FooterListValue( footersValues ) );
+    boolean bang = i < len && firstLine.charAt( i ) == '!';
+    if( bang )
+      i = skipSpaces( firstLine, i + 1, len );
 
-    return builder.build();
+    if( i >= len || firstLine.charAt( i ) != ':' )
+      return;
+
+    builder.isConventional( true );
+
+    builder.type( firstLine.substring( 0, typeEnd ).toLowerCase().trim() );
+
+    builder.scope( new ScopeValue( scope ) );
+
+    String description = firstLine.substring( i + 1 ).trim();
+    builder.description( description );
+
+    if( bang && !footers.keySet().stream().anyMatch( BREAKING_CHANGE_TIRET::equals ) )
+      footers.put( BREAKING_CHANGE_TIRET, Collections.singletonList( description ) );
 
   }
 
@@ -10,9 +10,12 @@ import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.revwalk.RevCommit;
 
 import io.github.atos_digital_id.paprika.GitHandler;
+import io.github.atos_digital_id.paprika.history.CommitInfo;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.ToString;
 
 /**
  * Wrapper around a Git commit.
@@ -30,7 +33,7 @@ public class CommitValue {
    * @param commit the commit.
    * @return the hex string identifying the commit.
    */
-  public static String getNameOf( RevCommit commit ) {
+  public static String getNameOf( ObjectId commit ) {
     return ObjectId.toString( commit );
   }
 
@@ -41,7 +44,7 @@ public class CommitValue {
    * @return the 9 first characters of the name.
    * @see getNameOf
    */
-  public static String getPrettyNameOf( RevCommit commit ) {
+  public static String getPrettyNameOf( ObjectId commit ) {
     return getNameOf( commit ).substring( 0, 9 );
   }
 
@@ -70,6 +73,22 @@ public class CommitValue {
 
   }
 
+  /**
+   * Extract a date from a compact commit information. If the information is
+   * {@code null} or has no date, return the starting date of the Maven
+   * command.
+   *
+   * @param git the {@link GitHandler} singleton.
+   * @param commit the commit information.
+   * @return the date of the commit.
+   */
+  public static ZonedDateTime getDateOf( @NonNull GitHandler git, CommitInfo commit ) {
+
+    ZonedDateTime date = commit == null ? null : commit.getDate();
+    return date == null ? git.startTime() : date;
+
+  }
+
   private static final DateTimeFormatter DATE_TIME_FORMATTER =
       DateTimeFormatter.ofPattern( "yyyy-MM-dd'T'HH:mm:ssXXX" );
 
@@ -87,6 +106,20 @@ public class CommitValue {
     return getDateOf( git, commit ).format( DATE_TIME_FORMATTER );
   }
 
+  /**
+   * Extract a formated date from a compact commit information. The pattern
+   * used is {@code yyyy-MM-dd'T'HH:mm:ssXXX}.
+   *
+   * @param git the {@link GitHandler} singleton.
+   * @param commit the commit information.
+   * @return the date of the commit.
+   * @see getDateOf
+   * @see DateTimeFormatter
+   */
+  public static String getStringDateOf( @NonNull GitHandler git, CommitInfo commit ) {
+    return getDateOf( git, commit ).format( DATE_TIME_FORMATTER );
+  }
+
   /*
    * Wrap
    */
@@ -100,7 +133,24 @@ public class CommitValue {
    *         {@code null}.
    */
   public static CommitValue wrap( @NonNull GitHandler git, RevCommit commit ) {
-    return commit == null ? null : new CommitValue( git, commit );
+    return wrap( git, null, commit );
+  }
+
+  /**
+   * Wrap a commit, taking its parsed message from a cache.
+   *
+   * @param git the {@link GitHandler} singleton.
+   * @param messageCache the cache of the parsed messages, or {@code null} to
+   *        parse the message of the commit.
+   * @param commit the commit to wrap.
+   * @return the wrapper around the commit, or {@code null} if the commit is
+   *         {@code null}.
+   */
+  public static CommitValue wrap(
+      @NonNull GitHandler git,
+      CommitMessageCache messageCache,
+      RevCommit commit ) {
+    return commit == null ? null : new CommitValue( git, commit, messageCache );
   }
 
   @NonNull
@@ -111,6 +161,11 @@ public class CommitValue {
   @Getter( NONE )
   private final RevCommit commit;
 
+  @Getter( NONE )
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final CommitMessageCache messageCache;
+
   /**
    * The name (hex string) of the commit.
    *
@@ -127,7 +182,7 @@ public class CommitValue {
    * @see getPrettyNameOf
    */
   @Getter( lazy = true )
-  private final String shortId = getPrettyNameOf( commit );
+  private final String shortId = getId().substring( 0, 9 );
 
   /**
    * The author of the commit.
@@ -160,7 +215,9 @@ public class CommitValue {
    * @return the message of the commit.
    */
   @Getter( lazy = true )
-  private final CommitMessageValue message = CommitMessageValue.wrap( commit.getFullMessage() );
+  private final CommitMessageValue message = messageCache == null
+      ? CommitMessageValue.wrap( commit.getFullMessage() )
+      : messageCache.get( commit );
 
   /**
    * Return the shorten id of the commit.
@@ -1,8 +1,9 @@
 package io.github.atos_digital_id.paprika.utils.templating.value;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
 
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevObject;
@@ -38,16 +39,34 @@ public class ReleaseValue {
       Version version,
       RevObject taggedObj,
       List<RevCommit> commits ) {
+    return wrap( git, null, tagName, version, taggedObj, commits );
+  }
 
-    List<CommitValue> changes = new ArrayList<>( commits.size() );
-    for( RevCommit commit : commits )
-      changes.add( CommitValue.wrap( git, commit ) );
+  /**
+   * Create a release wrapper, taking the parsed commit messages from a cache.
+   *
+   * @param git the {@link GitHandler} singleton.
+   * @param messageCache the cache of the parsed commit messages, or
+   *        {@code null} to parse the messages of the commits.
+   * @param tagName the tag name closing the release.
+   * @param version the version extracted from the tag.
+   * @param taggedObj the annotation commit, if any.
+   * @param commits the commits of the release.
+   * @return the wrapped release.
+   */
+  public static ReleaseValue wrap(
+      @NonNull GitHandler git,
+      CommitMessageCache messageCache,
+      String tagName,
+      Version version,
+      RevObject taggedObj,
+      List<RevCommit> commits ) {
 
     return new ReleaseValue(
         tagName,
         VersionValue.wrap( version ),
         TagValue.wrap( git, taggedObj ),
-        new ChangesValue( changes ) );
+        new ChangesValue( new LazyCommitList( git, messageCache, List.copyOf( commits ) ) ) );
 
   }
 
@@ -89,6 +108,50 @@ public class ReleaseValue {
   @Getter( lazy = true )
   private final boolean tagged = tag != null;
 
+  /**
+   * List of commits, wrapped on first access.
+   */
+  private static class LazyCommitList extends AbstractList<CommitValue> implements RandomAccess {
+
+    private final GitHandler git;
+
+    private final CommitMessageCache messageCache;
+
+    private final List<RevCommit> commits;
+
+    private final CommitValue[] values;
+
+    private LazyCommitList(
+        GitHandler git,
+        CommitMessageCache messageCache,
+        List<RevCommit> commits ) {
+      this.git = git;
+      this.messageCache = messageCache;
+      this.commits = commits;
+      this.values = new CommitValue[commits.size()];
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+
+    @Override
+    public CommitValue get( int index ) {
+
+      // concurrent accesses may wrap the same commit twice, with equal values
+      CommitValue value = values[index];
+      if( value == null ) {
+        value = CommitValue.wrap( git, messageCache, commits.get( index ) );
+        values[index] = value;
+      }
+
+      return value;
+
+    }
+
+  }
+
   /**
    * Iterable list of commits.
    */
@@ -0,0 +1,148 @@
+package io.github.atos_digital_id.paprika.core;
+
+import static io.github.atos_digital_id.paprika.core.TestArtifactDefProvider.id;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.atos_digital_id.paprika.project.ArtifactDef;
+import io.github.atos_digital_id.paprika.project.ArtifactGraph;
+
+public class ArtifactGraphTest {
+
+  private static SortedSet<String> names( Collection<ArtifactDef> defs ) {
+
+    SortedSet<String> names = new TreeSet<>();
+    for( ArtifactDef def : defs )
+      names.add( def.getArtifactId() );
+
+    return names;
+
+  }
+
+  // former recursive implementation of ArtifactDef.getAllDependencies
+  private static SortedSet<ArtifactDef> recursiveAllDependencies(
+      ArtifactDef def,
+      SortedSet<ArtifactDef> deps ) {
+
+    for( ArtifactDef dep : def.getDependencies() )
+      if( deps.add( dep ) )
+        recursiveAllDependencies( dep, deps );
+
+    Optional<ArtifactDef> parent = def.getParent();
+    while( parent.map( deps::add ).orElse( false ) )
+      parent = parent.flatMap( ArtifactDef::getParent );
+
+    return deps;
+
+  }
+
+  @Test
+  public void testParentChain() {
+
+    TestArtifactDefProvider provider = new TestArtifactDefProvider();
+    provider.add( "root", null );
+    provider.add( "parent", "root" );
+    ArtifactDef lib = provider.add( "lib", "parent" );
+    ArtifactDef app = provider.add( "app", "parent", "lib" );
+
+    assertThat( names( lib.getAllDependencies() ) ).containsExactly( "parent", "root" );
+    assertThat( names( app.getAllDependencies() ) ).containsExactly( "lib", "parent", "root" );
+    assertThat( app.getAllDependencies() ).contains( lib );
+    assertThat( lib.getAllDependencies() ).doesNotContain( app );
+
+    ArtifactGraph graph = provider.getGraph();
+    assertThat( graph.size() ).isEqualTo( 4 );
+    assertThat( graph.indexOf( provider.getDef( id( "root" ) ) ) )
+        .isLessThan( graph.indexOf( provider.getDef( id( "parent" ) ) ) );
+    assertThat( graph.indexOf( lib ) ).isLessThan( graph.indexOf( app ) );
+
+  }
+
+  @Test
+  public void testCycle() {
+
+    TestArtifactDefProvider provider = new TestArtifactDefProvider();
+    ArtifactDef a = provider.add( "a", null, "b" );
+    ArtifactDef b = provider.add( "b", null, "c" );
+    ArtifactDef c = provider.add( "c", null, "a", "d" );
+    ArtifactDef d = provider.add( "d", null );
+
+    assertThat( names( a.getAllDependencies() ) ).containsExactly( "a", "b", "c", "d" );
+    assertThat( names( b.getAllDependencies() ) ).containsExactly( "a", "b", "c", "d" );
+    assertThat( names( c.getAllDependencies() ) ).containsExactly( "a", "b", "c", "d" );
+    assertThat( d.getAllDependencies() ).isEmpty();
+
+  }
+
+  @Test
+  public void testUnion() {
+
+    TestArtifactDefProvider provider = new TestArtifactDefProvider();
+    provider.add( "parent", null );
+    ArtifactDef lib = provider.add( "lib", "parent" );
+    ArtifactDef util = provider.add( "util", null, "common" );
+    provider.add( "common", null );
+
+    assertThat( ArtifactDef.getAllDependencies( Collections.emptyList() ) ).isEmpty();
+    assertThat( names( ArtifactDef.getAllDependencies( List.of( lib, util ) ) ) )
+        .containsExactly( "common", "parent" );
+
+  }
+
+  /*
+   * Random graphs, with cycles. The parents are never dependencies, so the
+   * former implementation does not depend on the visit order.
+   */
+  @Test
+  public void testSameAsRecursive() {
+
+    Random random = new Random( 42 );
+
+    for( int round = 0; round < 200; round++ ) {
+
+      TestArtifactDefProvider provider = new TestArtifactDefProvider();
+
+      int parents = 1 + random.nextInt( 4 );
+      for( int i = 0; i < parents; i++ )
+        provider.add( "p" + i, i == 0 || random.nextBoolean() ? null : "p" + random.nextInt( i ) );
+
+      int modules = 1 + random.nextInt( 12 );
+      List<ArtifactDef> all = new ArrayList<>();
+      for( int i = 0; i < modules; i++ ) {
+
+        List<String> dependencies = new ArrayList<>();
+        for( int j = 0; j < modules; j++ )
+          if( j != i && random.nextInt( 4 ) == 0 )
+            dependencies.add( "m" + j );
+
+        String parent = random.nextBoolean() ? null : "p" + random.nextInt( parents );
+        all.add( provider.add( "m" + i, parent, dependencies.toArray( new String[0] ) ) );
+
+      }
+
+      for( ArtifactDef def : all )
+        assertThat( def.getAllDependencies() ).as( "round %s, %s", round, def )
+            .isEqualTo( recursiveAllDependencies( def, new TreeSet<>() ) );
+
+      List<ArtifactDef> some = all.subList( 0, 1 + random.nextInt( modules ) );
+      SortedSet<ArtifactDef> expected = new TreeSet<>();
+      for( ArtifactDef def : some )
+        recursiveAllDependencies( def, expected );
+      assertThat( ArtifactDef.getAllDependencies( some ) ).as( "round %s", round )
+          .isEqualTo( expected );
+
+    }
+
+  }
+
+}
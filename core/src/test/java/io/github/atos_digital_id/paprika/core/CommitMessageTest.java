@@ -13,12 +13,17 @@ import io.github.atos_digital_id.paprika.utils.templating.value.CommitMessageVal
 public class CommitMessageTest {
 
   private void testParseMessage( Consumer<CommitMessageValueBuilder> setter, String ... lines ) {
+    testParseMessage( setter, lines[0], String.join( "\n", lines ) );
+  }
 
-    String msg = String.join( "\n", lines );
+  private void testParseMessage(
+      Consumer<CommitMessageValueBuilder> setter,
+      String firstLine,
+      String msg ) {
 
     CommitMessageValueBuilder builder = CommitMessageValue.builder();
     builder.full( msg );
-    builder.firstLine( lines[0] );
+    builder.firstLine( firstLine );
     setter.accept( builder );
     CommitMessageValue expected = builder.build();
 
@@ -197,6 +202,123 @@ public class CommitMessageTest {
 
   }
 
+  /*
+   * Line terminators and separators
+   */
+
+  @Test
+  @DisplayName( "Commit message with CRLF line ends" )
+  public void separators01() {
+
+    testParseMessage( builder -> {
+      builder.isConventional( true );
+      builder.type( "fix" );
+      builder.scopes( "core" );
+      builder.description( "handle crlf" );
+      builder.body( "Body line" );
+      builder.footerBuilder().add( "REFS", "#1" ).build();
+    }, "fix(core): handle crlf", "fix(core): handle crlf\r\n\r\nBody line\r\n\r\nRefs: #1" );
+
+  }
+
+  @Test
+  @DisplayName( "Commit message with unicode line separators" )
+  public void separators02() {
+
+    String msg = "fix: handle separator\u2028\u2028Body\u2028\u2028Refs: #1";
+
+    CommitMessageValue expected = CommitMessageValue.builder()
+        .full( msg )
+        .firstLine( "fix: handle separator" )
+        .isConventional( true )
+        .type( "fix" )
+        .scopes( "" )
+        .description( "handle separator" )
+        .footerBuilder()
+        .add( "REFS", "#1" )
+        .build()
+        .build();
+
+    CommitMessageValue value = CommitMessageValue.wrap( msg );
+    assertThat( value ).usingRecursiveComparison().ignoringFields( "body" ).isEqualTo( expected );
+    assertThat( value.getBody() ).isEqualToIgnoringWhitespace( "Body" );
+
+  }
+
+  @Test
+  @DisplayName( "Commit message with form feed before footers" )
+  public void separators03() {
+
+    testParseMessage( builder -> {
+      builder.isConventional( true );
+      builder.type( "fix" );
+      builder.scopes( "" );
+      builder.description( "form feed" );
+      builder.body( "Body" );
+      builder.footerBuilder().add( "REFS", "#1" ).build();
+    }, "fix: form feed", "fix: form feed\n\nBody\n\f\nRefs: #1" );
+
+  }
+
+  @Test
+  @DisplayName( "Commit message with vertical tab before footers" )
+  public void separators04() {
+
+    testParseMessage( builder -> {
+      builder.isConventional( true );
+      builder.type( "fix" );
+      builder.scopes( "" );
+      builder.description( "vertical tab" );
+      builder.body( "Body" );
+      builder.footerBuilder().add( "REFS", "#1" ).build();
+    }, "fix: vertical tab", "fix: vertical tab\n\nBody\n\u000B\nRefs: #1" );
+
+  }
+
+  @Test
+  @DisplayName( "Commit message with both breaking change keys" )
+  public void separators05() {
+
+    testParseMessage( builder -> {
+      builder.isConventional( true );
+      builder.type( "feat" );
+      builder.scopes( "" );
+      builder.description( "keys" );
+      builder.body( "" );
+      builder.footerBuilder().add( "BREAKING-CHANGE", "one", "two" ).build();
+    }, "feat: keys", "", "BREAKING CHANGE: one", "BREAKING-CHANGE: two" );
+
+  }
+
+  @Test
+  @DisplayName( "Commit message with hash footer separators" )
+  public void separators06() {
+
+    testParseMessage( builder -> {
+      builder.isConventional( true );
+      builder.type( "fix" );
+      builder.scopes( "" );
+      builder.description( "hash" );
+      builder.body( "" );
+      builder.footerBuilder().add( "CLOSES", "13" ).add( "FIXES", "12" ).build();
+    }, "fix: hash", "", "Fixes #12", "Closes #13" );
+
+  }
+
+  @Test
+  @DisplayName( "Commit message with empty scope" )
+  public void separators07() {
+
+    testParseMessage( builder -> {
+      builder.isConventional( false );
+      builder.type( "" );
+      builder.scopes( "" );
+      builder.description( "" );
+      builder.body( "" );
+    }, "fix(): empty scope" );
+
+  }
+
   /*
    * Not conventional commits
    */
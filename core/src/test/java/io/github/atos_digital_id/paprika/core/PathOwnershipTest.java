@@ -0,0 +1,70 @@
+package io.github.atos_digital_id.paprika.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.atos_digital_id.paprika.history.PathOwnership;
+import io.github.atos_digital_id.paprika.utils.Patterns;
+
+public class PathOwnershipTest {
+
+  private PathOwnership<String> create() {
+
+    PathOwnership<String> ownership = new PathOwnership<>();
+    ownership.add( "", "root", Patterns.pathFilter( "pom.xml:.mvn/**:src/main/**" ) );
+    ownership.add( "core", "core", Patterns.pathFilter( "pom.xml:src/main/**" ) );
+    ownership.add( "plugins/maven", "maven", Patterns.pathFilter( "**" ) );
+    ownership.add( "plugins/gradle", "gradle", Patterns.pathFilter( "**:!build/**" ) );
+
+    return ownership;
+
+  }
+
+  @Test
+  public void testOwners() {
+
+    PathOwnership<String> ownership = create();
+
+    assertThat( ownership.getOwners( "pom.xml" ) ).containsExactly( "root" );
+    assertThat( ownership.getOwners( ".mvn/maven.config" ) ).containsExactly( "root" );
+    assertThat( ownership.getOwners( "core/pom.xml" ) ).containsExactly( "core" );
+    assertThat( ownership.getOwners( "core/src/main/java/App.java" ) ).containsExactly( "core" );
+    assertThat( ownership.getOwners( "core/src/test/java/AppTest.java" ) ).isEmpty();
+    assertThat( ownership.getOwners( "plugins/maven/README.md" ) ).containsExactly( "maven" );
+    assertThat( ownership.getOwners( "plugins/gradle/build/out.txt" ) ).isEmpty();
+    assertThat( ownership.getOwners( "plugins/README.md" ) ).isEmpty();
+    assertThat( ownership.getOwners( "core" ) ).isEmpty();
+
+  }
+
+  @Test
+  public void testNestedOwners() {
+
+    PathOwnership<String> ownership = create();
+    ownership.add( "plugins", "plugins", Patterns.pathFilter( "**" ) );
+
+    assertThat( ownership.getOwners( "plugins/maven/pom.xml" ) )
+        .containsExactly( "plugins", "maven" );
+    assertThat( ownership.getAllOwners() )
+        .containsExactly( "root", "core", "maven", "gradle", "plugins" );
+
+  }
+
+  @Test
+  public void testMayOwnUnder() {
+
+    PathOwnership<String> ownership = new PathOwnership<>();
+    ownership.add( "core", "core", Patterns.pathFilter( "**" ) );
+    ownership.add( "plugins/maven", "maven", Patterns.pathFilter( "**" ) );
+
+    assertThat( ownership.mayOwnUnder( "" ) ).isTrue();
+    assertThat( ownership.mayOwnUnder( "core/src" ) ).isTrue();
+    assertThat( ownership.mayOwnUnder( "plugins" ) ).isTrue();
+    assertThat( ownership.mayOwnUnder( "plugins/gradle" ) ).isFalse();
+    assertThat( ownership.mayOwnUnder( "docs" ) ).isFalse();
+    assertThat( ownership.mayOwnUnder( "cor" ) ).isFalse();
+
+  }
+
+}
@@ -1,11 +1,13 @@
 package io.github.atos_digital_id.paprika.core;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import org.junit.jupiter.api.Test;
 
 import io.github.atos_digital_id.paprika.utils.Patterns;
 import io.github.atos_digital_id.paprika.utils.Patterns.PathFilter;
+import io.github.atos_digital_id.paprika.utils.Patterns.PathFilterResult;
 
 public class PatternsTest {
 
@@ -73,4 +75,36 @@ public class PatternsTest {
         "[JIRA-999*]experimental-feature" );
   }
 
+  @Test
+  public void testNonAscii() {
+    shouldMatch( "caf?/*", "café/menu", "cafe/menu" );
+    shouldNotMatch( "caf?/*", "caf/menu", "café/menu/today", "cafée/menu" );
+  }
+
+  @Test
+  public void testRawPath() {
+
+    PathFilter p = Patterns.pathFilter( "src/main/**" );
+    byte[] raw = "module/src/main/java/App.java".getBytes( UTF_8 );
+
+    assertThat( p.complete( raw, 7, raw.length - 7 ) ).isTrue();
+    assertThat( p.complete( raw, 0, raw.length ) ).isFalse();
+
+  }
+
+  @Test
+  public void testPartial() {
+
+    PathFilter p = Patterns.pathFilter( "pom.xml:.mvn/**:src/main/**" );
+    assertThat( p.partial( "src" ) ).isEqualTo( PathFilterResult.MATCH );
+    assertThat( p.partial( "src/main" ) ).isEqualTo( PathFilterResult.TREE_MATCH );
+    assertThat( p.partial( ".mvn" ) ).isEqualTo( PathFilterResult.TREE_MATCH );
+    assertThat( p.partial( "src/test" ) ).isEqualTo( PathFilterResult.NO_MATCH );
+    assertThat( p.partial( "target" ) ).isEqualTo( PathFilterResult.NO_MATCH );
+
+    assertThat( Patterns.pathFilter( "**" ).partial( "any/dir" ) )
+        .isEqualTo( PathFilterResult.MATCH );
+
+  }
+
 }
@@ -0,0 +1,81 @@
+package io.github.atos_digital_id.paprika.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.atos_digital_id.paprika.project.ArtifactDef;
+import io.github.atos_digital_id.paprika.project.PropertiesScope;
+
+public class PropertiesScopeTest {
+
+  private static SortedSet<String> names( Collection<ArtifactDef> defs ) {
+
+    SortedSet<String> names = new TreeSet<>();
+    for( ArtifactDef def : defs )
+      names.add( def.getArtifactId() );
+
+    return names;
+
+  }
+
+  @Test
+  public void testReferences() {
+
+    String pom = "<version>${paprika.lib}</version>\n"
+        + "<tag>${paprika.tools.lastCommit.short}</tag>\n"
+        + "<v>${paprika}</v><x>paprika.ignored</x><y>${paprika.}</y>";
+
+    Set<String> references = PropertiesScope.findReferences( pom );
+    assertThat( references ).containsExactlyInAnyOrder( "lib", "tools.lastCommit.short" );
+
+    assertThat( PropertiesScope.isReferenced( "lib", references ) ).isTrue();
+    assertThat( PropertiesScope.isReferenced( "tools", references ) ).isTrue();
+    assertThat( PropertiesScope.isReferenced( "tools.lastCommit", references ) ).isTrue();
+    assertThat( PropertiesScope.isReferenced( "li", references ) ).isFalse();
+    assertThat( PropertiesScope.isReferenced( "lib-extra", references ) ).isFalse();
+    assertThat( PropertiesScope.isReferenced( "ignored", references ) ).isFalse();
+
+  }
+
+  @Test
+  public void testUnrelatedNotExamined() {
+
+    TestArtifactDefProvider provider = new TestArtifactDefProvider();
+    List<ArtifactDef> all = new ArrayList<>();
+    all.add( provider.add( "root", null ) );
+    all.add( provider.add( "parent", "root" ) );
+    all.add( provider.add( "util", null ) );
+    all.add( provider.add( "lib", "parent", "util" ) );
+    all.add( provider.add( "app", "parent", "lib" ) );
+    all.add( provider.add( "tools", null ) );
+    all.add( provider.add( "other", "root", "another" ) );
+    all.add( provider.add( "another", null ) );
+
+    // only the root pom references another module
+    Map<String, Set<String>> references = new HashMap<>();
+    references.put( "root", Set.of( "tools.refName" ) );
+
+    ArtifactDef app = provider.getDef( TestArtifactDefProvider.id( "app" ) );
+    List<String> read = new ArrayList<>();
+    SortedSet<ArtifactDef> scope = PropertiesScope.getScope( app, all, def -> {
+      read.add( def.getArtifactId() );
+      return references.getOrDefault( def.getArtifactId(), Collections.emptySet() );
+    } );
+
+    assertThat( names( scope ) ).containsExactly( "app", "lib", "parent", "root", "tools", "util" );
+    assertThat( read ).containsExactly( "app", "parent", "root" );
+
+  }
+
+}
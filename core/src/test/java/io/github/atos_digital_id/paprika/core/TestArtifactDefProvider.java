@@ -0,0 +1,64 @@
+package io.github.atos_digital_id.paprika.core;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.model.Model;
+
+import io.github.atos_digital_id.paprika.project.ArtifactDef;
+import io.github.atos_digital_id.paprika.project.ArtifactDefProvider;
+import io.github.atos_digital_id.paprika.project.ArtifactGraph;
+import io.github.atos_digital_id.paprika.project.ArtifactId;
+
+/**
+ * Provider of in-memory modules, in the group {@code group}.
+ **/
+public class TestArtifactDefProvider extends ArtifactDefProvider {
+
+  private final Map<ArtifactId, ArtifactDef> defs = new HashMap<>();
+
+  private ArtifactGraph graph;
+
+  public static ArtifactId id( String name ) {
+    return new ArtifactId( "group", name );
+  }
+
+  public ArtifactDef add( String name, String parent, String ... dependencies ) {
+
+    List<ArtifactId> dependencyIds = new ArrayList<>();
+    for( String dependency : dependencies )
+      dependencyIds.add( id( dependency ) );
+
+    ArtifactDef def = new ArtifactDef(
+        this,
+        "group",
+        name,
+        "jar",
+        parent == null ? null : id( parent ),
+        dependencyIds,
+        Path.of( name, "pom.xml" ),
+        () -> new Model(),
+        Collections.emptySet() );
+    defs.put( id( name ), def );
+
+    return def;
+
+  }
+
+  @Override
+  public ArtifactDef getDef( ArtifactId id ) {
+    return defs.get( id );
+  }
+
+  @Override
+  public ArtifactGraph getGraph() {
+    if( graph == null )
+      graph = new ArtifactGraph( defs.values() );
+    return graph;
+  }
+
+}
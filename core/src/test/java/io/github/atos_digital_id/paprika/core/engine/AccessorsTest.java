@@ -0,0 +1,80 @@
+package io.github.atos_digital_id.paprika.core.engine;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.atos_digital_id.paprika.utils.templating.engine.TemplateConfig;
+import io.github.atos_digital_id.paprika.utils.templating.engine.TemplateEngine;
+
+/**
+ * Unofficial features: properties read through the public methods of the
+ * values.
+ */
+public class AccessorsTest {
+
+  public static class Bean {
+
+    public String getName() {
+      return "bean";
+    }
+
+    public boolean isValid() {
+      return true;
+    }
+
+    public String getFailing() {
+      throw new IllegalStateException( "failing getter" );
+    }
+
+    public boolean isFailing() {
+      return false;
+    }
+
+    public String getBroken() {
+      throw new StackOverflowError( "broken getter" );
+    }
+
+  }
+
+  @Test
+  public void accessors() {
+
+    MustacheTest.test( builder -> {
+      builder.data( "bean", new Bean() );
+      builder.template( "{{bean.name}} {{bean.valid}} {{#bean}}{{name}}{{/bean}}" );
+      builder.expected( "bean true bean" );
+    } );
+
+  }
+
+  /*
+   * A getter throwing an exception is skipped, the next accessor is tried.
+   */
+  @Test
+  public void failingGetter() {
+
+    MustacheTest.test( builder -> {
+      builder.data( "bean", new Bean() );
+      builder.template( "<{{bean.failing}}>" );
+      builder.expected( "<false>" );
+    } );
+
+  }
+
+  /*
+   * An error is not a miss.
+   */
+  @Test
+  public void brokenGetter() {
+
+    TemplateConfig config = TemplateConfig.builder().build();
+    Map<String, Object> data = Map.of( "bean", new Bean() );
+    assertThatThrownBy( () -> TemplateEngine.execute( config, "<{{bean.broken}}>", data ) )
+        .isInstanceOf( StackOverflowError.class );
+
+  }
+
+}
@@ -2,10 +2,25 @@ package io.github.atos_digital_id.paprika.core.engine;
 
 import static io.github.atos_digital_id.paprika.utils.templating.engine.api.SimpleCustomListBuilder.emptyList;
 import static io.github.atos_digital_id.paprika.utils.templating.engine.api.SimpleCustomListBuilder.simpleList;
+import static io.github.atos_digital_id.paprika.utils.templating.engine.api.SimpleCustomMapBuilder.simpleMap;
 import static io.github.atos_digital_id.paprika.utils.templating.engine.api.SimpleCustomMapBuilder.singleMap;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import org.junit.jupiter.api.Test;
 
+import io.github.atos_digital_id.paprika.utils.templating.engine.TemplateConfig;
+import io.github.atos_digital_id.paprika.utils.templating.engine.TemplateEngine;
+import io.github.atos_digital_id.paprika.utils.templating.engine.api.Lambda;
+
 /**
  * Unoffical feature.
  *
@@ -109,4 +124,146 @@ public class EachTest {
 
   }
 
+  /*
+   * Nested lists, the outer item being still accessible.
+   */
+  @Test
+  public void nestedLists() {
+
+    MustacheTest.test( builder -> {
+      builder.data(
+          "array",
+          simpleList(
+              simpleMap().add( "name", "foo" ).add( "items", simpleList( "a", "b" ) ).build(),
+              simpleMap().add( "name", "bar" ).add( "items", simpleList( "c" ) ).build() ) );
+      builder.template( "{{#array}}{{#items}}<{{@index}}:{{name}}:{{.}}>{{/items}}{{@last}}{{/array}}" );
+      builder.expected( "<0:foo:a><1:foo:b>false<0:bar:c>true" );
+    } );
+
+  }
+
+  /*
+   * Long lists rendered in parallel, with the items joined in order.
+   */
+  @Test
+  public void parallelRendering() {
+
+    List<Integer> items = IntStream.range( 0, 1000 ).boxed().collect( Collectors.toList() );
+    String expected =
+        items.stream().map( i -> i + ":" + ( i == 999 ) + ";" ).collect( Collectors.joining() );
+
+    TemplateConfig config = TemplateConfig.builder().parallelThreshold( 10 ).build();
+    String result = TemplateEngine
+        .execute( config, "{{#items}}{{.}}:{{@last}};{{/items}}", Map.of( "items", items ) );
+
+    assertThat( result ).isEqualTo( expected );
+
+  }
+
+  /*
+   * Long lists whose items execute lambdas are rendered serially.
+   */
+  @Test
+  public void parallelRenderingWithLambda() {
+
+    List<Integer> items = IntStream.range( 0, 1000 ).boxed().collect( Collectors.toList() );
+    String expected = items.stream().map( i -> i + "=" + i + ";" ).collect( Collectors.joining() );
+
+    AtomicInteger counter = new AtomicInteger();
+    Lambda count = ( template, out ) -> out.append( counter.getAndIncrement() );
+
+    TemplateConfig config = TemplateConfig.builder().parallelThreshold( 10 ).build();
+    String result = TemplateEngine.execute(
+        config,
+        "{{#items}}{{.}}={{#count}}{{/count}};{{/items}}",
+        Map.of( "items", items, "count", count ) );
+
+    assertThat( result ).isEqualTo( expected );
+
+  }
+
+  /*
+   * Long lists rendered in parallel are written while rendered: only a few
+   * items are rendered ahead of the written output.
+   */
+  @Test
+  public void parallelRenderingStreamed() throws IOException {
+
+    int size = 100_000;
+    AtomicInteger rendered = new AtomicInteger();
+    List<Integer> items = new AbstractList<>() {
+
+      @Override
+      public Integer get( int index ) {
+        rendered.incrementAndGet();
+        return index;
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+    };
+
+    AtomicInteger written = new AtomicInteger();
+    AtomicInteger maxAhead = new AtomicInteger();
+    Appendable out = new Appendable() {
+
+      @Override
+      public Appendable append( CharSequence csq ) {
+        written.addAndGet( (int) csq.chars().filter( c -> c == ';' ).count() );
+        maxAhead.accumulateAndGet( rendered.get() - written.get(), Math::max );
+        return this;
+      }
+
+      @Override
+      public Appendable append( CharSequence csq, int start, int end ) {
+        return append( csq.subSequence( start, end ) );
+      }
+
+      @Override
+      public Appendable append( char c ) {
+        return append( String.valueOf( c ) );
+      }
+
+    };
+
+    TemplateConfig config = TemplateConfig.builder().parallelThreshold( 10 ).build();
+    TemplateEngine.execute( config, "{{#items}}{{.}};{{/items}}", Map.of( "items", items ), out );
+
+    assertThat( written.get() ).isEqualTo( size );
+    assertThat( maxAhead.get() ).isLessThan( size / 10 );
+
+  }
+
+  /*
+   * From the first item executing a lambda, the items are rendered serially,
+   * after the items already written.
+   */
+  @Test
+  public void parallelRenderingWithLateLambda() {
+
+    AtomicInteger counter = new AtomicInteger();
+    Lambda count = ( template, out ) -> out.append( counter.getAndIncrement() );
+
+    List<Map<String, Object>> items = IntStream.range( 0, 1000 )
+        .mapToObj(
+            i -> i < 700 ? Map.<String, Object> of( "i", i ) : Map.of( "i", i, "count", count ) )
+        .collect( Collectors.toList() );
+    String expected = IntStream.range( 0, 1000 )
+        .mapToObj( i -> i < 700 ? i + ":;" : i + ":" + ( i - 700 ) + ";" )
+        .collect( Collectors.joining() );
+
+    TemplateConfig config = TemplateConfig.builder().parallelThreshold( 10 ).build();
+    String result = TemplateEngine.execute(
+        config,
+        "{{#items}}{{i}}:{{#count}}{{/count}};{{/items}}",
+        Map.of( "items", items ) );
+
+    assertThat( result ).isEqualTo( expected );
+    assertThat( counter.get() ).isEqualTo( 300 );
+
+  }
+
 }
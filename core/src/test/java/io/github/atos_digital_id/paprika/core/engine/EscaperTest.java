@@ -0,0 +1,58 @@
+package io.github.atos_digital_id.paprika.core.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.atos_digital_id.paprika.utils.templating.engine.Escaper;
+
+public class EscaperTest {
+
+  private static String escape( Escaper escaper, CharSequence value ) throws IOException {
+    StringBuilder out = new StringBuilder( "> " );
+    escaper.escape( value, out );
+    return out.toString();
+  }
+
+  @Test
+  public void testNothingToEscape() throws IOException {
+
+    String value = "Nothing to escape here";
+    assertThat( Escaper.HTML.escape( value ) ).isSameAs( value );
+    assertThat( Escaper.JSON.escape( value ) ).isSameAs( value );
+
+    assertThat( escape( Escaper.HTML, value ) ).isEqualTo( "> " + value );
+    assertThat( escape( Escaper.JSON, new StringBuilder( value ) ) ).isEqualTo( "> " + value );
+
+  }
+
+  @Test
+  public void testHtml() throws IOException {
+
+    assertThat( Escaper.HTML.escape( "<a href=\"x\">Tom & 'Jerry'</a>`" ) )
+        .isEqualTo( "&lt;a href&#x3D;&quot;x&quot;&gt;Tom &amp; &#39;Jerry&#39;&lt;/a&gt;&#x60;" );
+    assertThat( escape( Escaper.HTML, "a<b" ) ).isEqualTo( "> a&lt;b" );
+    assertThat( escape( Escaper.HTML, "<é>" ) ).isEqualTo( "> &lt;é&gt;" );
+
+  }
+
+  @Test
+  public void testJson() throws IOException {
+
+    assertThat( Escaper.JSON.escape( "say \"hi\"\\\n\t\u0001" ) )
+        .isEqualTo( "say \\\"hi\\\"\\\\\\n\\t\\u0001" );
+    assertThat( escape( Escaper.JSON, "a\rb" ) ).isEqualTo( "> a\\rb" );
+
+  }
+
+  @Test
+  public void testNone() throws IOException {
+
+    assertThat( Escaper.NONE.escape( "<&>" ) ).isEqualTo( "<&>" );
+    assertThat( escape( Escaper.NONE, "<&>" ) ).isEqualTo( "> <&>" );
+
+  }
+
+}
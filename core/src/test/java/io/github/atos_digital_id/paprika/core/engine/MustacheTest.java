@@ -2,6 +2,9 @@ package io.github.atos_digital_id.paprika.core.engine;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -72,8 +75,25 @@ public class MustacheTest {
     if( map == null )
       map = new HashMap<>();
 
-    assertThat( TemplateEngine.execute( config, data.getTemplate(), map ) )
-        .isEqualTo( data.getExpected() );
+    for( int parallelThreshold : new int[] { 0, 1 } ) {
+
+      TemplateConfig modeConfig = config.withParallelThreshold( parallelThreshold );
+
+      assertThat( TemplateEngine.execute( modeConfig, data.getTemplate(), map ) )
+          .as( "parallel threshold: %s", parallelThreshold )
+          .isEqualTo( data.getExpected() );
+
+      StringWriter writer = new StringWriter();
+      try {
+        TemplateEngine.execute( modeConfig, data.getTemplate(), map, writer );
+      } catch( IOException ex ) {
+        throw new UncheckedIOException( ex );
+      }
+      assertThat( writer.toString() )
+          .as( "parallel threshold: %s", parallelThreshold )
+          .isEqualTo( data.getExpected() );
+
+    }
 
   }
 
@@ -0,0 +1,64 @@
+package io.github.atos_digital_id.paprika.core.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.atos_digital_id.paprika.utils.templating.engine.TemplateCache;
+import io.github.atos_digital_id.paprika.utils.templating.engine.TemplateConfig;
+import io.github.atos_digital_id.paprika.utils.templating.engine.TemplateEngine;
+import io.github.atos_digital_id.paprika.utils.templating.engine.segment.Segment;
+import io.github.atos_digital_id.paprika.utils.templating.engine.segment.StringSegment;
+
+public class TemplateCacheTest {
+
+  private static final String SOURCE = "cache test {{value}}\nsecond line\n";
+
+  @Test
+  public void testReuse() {
+
+    List<Segment> segments = TemplateCache.get( SOURCE );
+    assertThat( TemplateCache.get( SOURCE ) ).isSameAs( segments );
+    assertThat( TemplateCache.get( SOURCE, "" ) ).isSameAs( segments );
+
+    TemplateCache.clear();
+    assertThat( TemplateCache.get( SOURCE ) ).isNotSameAs( segments ).isEqualTo( segments );
+
+  }
+
+  @Test
+  public void testIndentations() {
+
+    List<Segment> notIndented = TemplateCache.get( SOURCE, "" );
+    List<Segment> indented = TemplateCache.get( SOURCE, "  " );
+    List<Segment> moreIndented = TemplateCache.get( SOURCE, "    " );
+
+    assertThat( indented ).isNotEqualTo( notIndented ).isNotEqualTo( moreIndented );
+    assertThat( indented.get( 0 ) ).isEqualTo( new StringSegment( "  cache test " ) );
+    assertThat( moreIndented.get( 0 ) ).isEqualTo( new StringSegment( "    cache test " ) );
+
+    assertThat( TemplateCache.get( SOURCE, "  " ) ).isSameAs( indented );
+    assertThat( TemplateCache.get( SOURCE, "    " ) ).isSameAs( moreIndented );
+
+  }
+
+  @Test
+  public void testPartials() {
+
+    String partial = "- {{.}}\n";
+    TemplateConfig config = TemplateConfig.builder().partialsLoader( name -> partial ).build();
+    Map<String, Object> data = Map.of( "items", List.of( "a", "b" ) );
+
+    assertThat( TemplateEngine.execute( config, "{{#items}}\n  {{> item}}\n{{/items}}\n", data ) )
+        .isEqualTo( "  - a\n  - b\n" );
+    assertThat( TemplateEngine.execute( config, "{{#items}}\n{{> item}}\n{{/items}}\n", data ) )
+        .isEqualTo( "- a\n- b\n" );
+
+    assertThat( TemplateCache.get( partial, "  " ) ).isNotEqualTo( TemplateCache.get( partial ) );
+
+  }
+
+}